@@ -1,6 +1,55 @@
 package main.najah.code;
 
+import java.math.BigInteger;
+import java.nio.IntBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
 public class Calculator {
+    // 0! to 20!, the factorials that fit in a long
+    private static final long[] LONG_FACTORIALS = new long[21];
+    // Ranges shorter than this are multiplied without splitting further
+    private static final int LEAF_SIZE = 32;
+    // From this n on, the halves of big factorials are multiplied in parallel
+    private static final int PARALLEL_THRESHOLD = 10_000;
+    private static final int FORK_SIZE = 2_048;
+    private static final int MEMO_SIZE = 16;
+    // Bulk sums of at least this many elements are split across the common pool
+    private static final int DEFAULT_SUM_THRESHOLD = 1 << 18;
+    private static final int MIN_SUM_LEAF = 1_024;
+
+    // Recently used big factorials, least recently used first
+    private static final Map<Integer, BigInteger> MEMO = new LinkedHashMap<>(MEMO_SIZE, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, BigInteger> eldest) {
+            return size() > MEMO_SIZE;
+        }
+    };
+
+    static {
+        LONG_FACTORIALS[0] = 1;
+        for (int i = 1; i < LONG_FACTORIALS.length; i++) {
+            LONG_FACTORIALS[i] = Math.multiplyExact(LONG_FACTORIALS[i - 1], i);
+        }
+    }
+
+    private final int sumThreshold;
+
+    public Calculator() {
+        this(DEFAULT_SUM_THRESHOLD);
+    }
+
+    // Bulk sums over at least sumThreshold elements run in parallel
+    public Calculator(int sumThreshold) {
+        if (sumThreshold <= 0) throw new IllegalArgumentException("Threshold must be positive");
+        this.sumThreshold = sumThreshold;
+    }
+
     public int add(int... numbers) {
         int sum = 0;
         for (int n : numbers) sum += n;
@@ -12,10 +61,196 @@ public class Calculator {
         return a / b;
     }
 
+    // For dividing many numbers by the same divisor; a zero divisor is rejected here
+    public PreparedDivisor prepareDivisor(int b) {
+        return PreparedDivisor.of(b);
+    }
+
     public int factorial(int n) {
         if (n < 0) throw new IllegalArgumentException("Negative input");
         int result = 1;
         for (int i = 2; i <= n; i++) result *= i;
         return result;
     }
+
+    // An int array cannot hold enough elements to overflow a long sum
+    public long sum(int[] values) {
+        return sum(values, 0, values.length);
+    }
+
+    public long sum(int[] values, int from, int to) {
+        Objects.checkFromToIndex(from, to, values.length);
+        return reduce((acc, lo, hi) -> addTo(acc, sumInts(values, lo, hi)), from, to);
+    }
+
+    // Sums the elements between the buffer's position and limit without moving the position
+    public long sum(IntBuffer buffer) {
+        int from = buffer.position();
+        int to = buffer.limit();
+        if (buffer.hasArray()) {
+            int offset = buffer.arrayOffset();
+            return sum(buffer.array(), offset + from, offset + to);
+        }
+        return reduce((acc, lo, hi) -> {
+            long sum = 0;
+            for (int i = lo; i < hi; i++) sum += buffer.get(i);
+            addTo(acc, sum);
+        }, from, to);
+    }
+
+    // Throws ArithmeticException only if the total does not fit in a long,
+    // whatever the intermediate sums and however the range is split
+    public long sumExact(long[] values) {
+        return sumExact(values, 0, values.length);
+    }
+
+    public long sumExact(long[] values, int from, int to) {
+        Objects.checkFromToIndex(from, to, values.length);
+        return reduce((acc, lo, hi) -> {
+            for (int i = lo; i < hi; i++) addTo(acc, values[i]);
+        }, from, to);
+    }
+
+    // Four independent accumulators let the JIT overlap the additions
+    private static long sumInts(int[] values, int from, int to) {
+        long s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = from;
+        for (; i <= to - 4; i += 4) {
+            s0 += values[i];
+            s1 += values[i + 1];
+            s2 += values[i + 2];
+            s3 += values[i + 3];
+        }
+        for (; i < to; i++) s0 += values[i];
+        return s0 + s1 + s2 + s3;
+    }
+
+    // Sums a range into a {high, low} 128-bit accumulator and narrows the total to a long
+    private long reduce(RangeSum leaf, int from, int to) {
+        long[] acc;
+        if (to - from < sumThreshold) {
+            acc = new long[2];
+            leaf.addTo(acc, from, to);
+        } else {
+            int leafSize = Math.max(MIN_SUM_LEAF, sumThreshold / 8);
+            acc = ForkJoinPool.commonPool().invoke(new SumTask(leaf, from, to, leafSize));
+        }
+        if (acc[0] != 0) throw new ArithmeticException("long overflow");
+        return acc[1];
+    }
+
+    // Adds a long to a 128-bit accumulator, carrying into the high word on signed overflow
+    private static void addTo(long[] acc, long value) {
+        long sum = acc[1] + value;
+        if (((acc[1] ^ sum) & (value ^ sum)) < 0) acc[0] += value < 0 ? -1 : 1;
+        acc[1] = sum;
+    }
+
+    private interface RangeSum {
+        void addTo(long[] acc, int from, int to);
+    }
+
+    private static class SumTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+        private final transient RangeSum leaf;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+
+        SumTask(RangeSum leaf, int from, int to, int leafSize) {
+            this.leaf = leaf;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= leafSize) {
+                long[] acc = new long[2];
+                leaf.addTo(acc, from, to);
+                return acc;
+            }
+            int mid = (from + to) >>> 1;
+            SumTask left = new SumTask(leaf, from, mid, leafSize);
+            left.fork();
+            long[] acc = new SumTask(leaf, mid, to, leafSize).compute();
+            long[] other = left.join();
+            acc[0] += other[0];
+            addTo(acc, other[1]);
+            return acc;
+        }
+    }
+
+    /**
+     * Returns n! for 0 <= n <= 20, the factorials that fit in a long.
+     * @param n
+     * @return long
+     * @throws IllegalArgumentException if n is negative
+     * @throws ArithmeticException if n is above 20; use factorialBig instead
+     */
+    public long factorialLong(int n) {
+        if (n < 0) throw new IllegalArgumentException("Negative input");
+        if (n >= LONG_FACTORIALS.length) throw new ArithmeticException("Factorial overflows a long");
+        return LONG_FACTORIALS[n];
+    }
+
+    public BigInteger factorialBig(int n) {
+        if (n < 0) throw new IllegalArgumentException("Negative input");
+        if (n < LONG_FACTORIALS.length) return BigInteger.valueOf(LONG_FACTORIALS[n]);
+        synchronized (MEMO) {
+            BigInteger cached = MEMO.get(n);
+            if (cached != null) return cached;
+        }
+        // Binary splitting keeps the operands of each multiplication about
+        // the same size, where BigInteger's Karatsuba and Toom-Cook pay off
+        int lo = LONG_FACTORIALS.length;
+        BigInteger tail = n < PARALLEL_THRESHOLD
+                ? product(lo, n)
+                : ForkJoinPool.commonPool().invoke(new ProductTask(lo, n));
+        BigInteger result = tail.multiply(BigInteger.valueOf(LONG_FACTORIALS[lo - 1]));
+        synchronized (MEMO) {
+            MEMO.put(n, result);
+        }
+        return result;
+    }
+
+    // Product of lo..hi, both inclusive
+    private static BigInteger product(int lo, int hi) {
+        if (hi - lo < LEAF_SIZE) {
+            BigInteger result = BigInteger.ONE;
+            long acc = 1;
+            for (long i = lo; i <= hi; i++) {
+                if (acc > Long.MAX_VALUE / i) {
+                    result = result.multiply(BigInteger.valueOf(acc));
+                    acc = 1;
+                }
+                acc *= i;
+            }
+            return result.multiply(BigInteger.valueOf(acc));
+        }
+        int mid = (lo + hi) >>> 1;
+        return product(lo, mid).multiply(product(mid + 1, hi));
+    }
+
+    private static class ProductTask extends RecursiveTask<BigInteger> {
+        private static final long serialVersionUID = 1L;
+        private final int lo;
+        private final int hi;
+
+        ProductTask(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected BigInteger compute() {
+            if (hi - lo < FORK_SIZE) return product(lo, hi);
+            int mid = (lo + hi) >>> 1;
+            ProductTask left = new ProductTask(lo, mid);
+            left.fork();
+            BigInteger right = new ProductTask(mid + 1, hi).compute();
+            return left.join().multiply(right);
+        }
+    }
 }
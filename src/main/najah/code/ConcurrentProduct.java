@@ -0,0 +1,146 @@
+package main.najah.code;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A Product that may be read and discounted by many threads at once.
+ *
+ * The price, discount and final price are published together as one
+ * immutable Snapshot held in an AtomicReference.  Reads never lock and
+ * never wait: each getter reads the current snapshot once, so it never
+ * combines the price of one update with the discount of another.  Code
+ * that needs several values should take a snapshot and read them from
+ * it rather than call the getters one after another.
+ *
+ * Discounts are changed by compare-and-set, which allows optimistic
+ * repricing: read a snapshot, work out a new discount, and install it
+ * only if no other thread changed the product in between.  Discounts are
+ * checked exactly like Product.applyDiscount.
+ */
+public class ConcurrentProduct extends Product {
+
+	private final AtomicReference<Snapshot> state;
+
+	public ConcurrentProduct(String name, double price) {
+		super(name, price);
+		this.state = new AtomicReference<>(new Snapshot(price, 0, 0));
+	}
+
+	/**
+	 * Returns the current price, discount and final price.
+	 * @return Snapshot
+	 */
+	public Snapshot snapshot() {
+		return state.get();
+	}
+
+	/**
+	 * Sets the discount whatever its current value.
+	 * @param discountPercentage
+	 */
+	@Override
+	public void applyDiscount(double discountPercentage) {
+		checkDiscount(discountPercentage);
+		Snapshot current;
+		do {
+			current = state.get();
+		} while (!state.compareAndSet(current, current.withDiscount(discountPercentage)));
+	}
+
+	/**
+	 * Sets the discount if the product is still in the expected state.
+	 * @param expected            a snapshot taken from this product
+	 * @param discountPercentage
+	 * @return boolean            false if another update came first
+	 */
+	public boolean compareAndSetDiscount(Snapshot expected, double discountPercentage) {
+		checkDiscount(discountPercentage);
+		return state.compareAndSet(expected, expected.withDiscount(discountPercentage));
+	}
+
+	/**
+	 * Sets the discount to a function of the current snapshot, retrying
+	 * while other threads update the product.  The function may be
+	 * called several times and should have no side effects.
+	 * @param update   maps the current discount to the new one
+	 * @return Snapshot   the snapshot installed
+	 */
+	public Snapshot updateDiscount(DoubleUnaryOperator update) {
+		while (true) {
+			Snapshot current = state.get();
+			double discountPercentage = update.applyAsDouble(current.discount);
+			checkDiscount(discountPercentage);
+			Snapshot next = current.withDiscount(discountPercentage);
+			if (state.compareAndSet(current, next)) {
+				return next;
+			}
+		}
+	}
+
+	@Override
+	public double getPrice() {
+		return state.get().price;
+	}
+
+	@Override
+	public double getDiscount() {
+		return state.get().discount;
+	}
+
+	@Override
+	public double getFinalPrice() {
+		return state.get().finalPrice;
+	}
+
+	@Override
+	public Money getPriceMoney() {
+		return state.get().getPriceMoney();
+	}
+
+	@Override
+	public int getDiscountBasisPoints() {
+		return state.get().getDiscountBasisPoints();
+	}
+
+	@Override
+	public Money getFinalPriceMoney() {
+		return state.get().getFinalPriceMoney();
+	}
+
+	/**
+	 * The state of a ConcurrentProduct at one moment.  The version
+	 * starts at 0 and goes up by one with every change.
+	 */
+	public static final class Snapshot {
+
+		private final double price;
+		private final double discount;
+		private final double finalPrice;
+		private final long version;
+
+		Snapshot(double price, double discount, long version) {
+			this.price = price;
+			this.discount = discount;
+			this.finalPrice = price * (1 - discount / 100);
+			this.version = version;
+		}
+
+		Snapshot withDiscount(double discountPercentage) {
+			return new Snapshot(price, discountPercentage, version + 1);
+		}
+
+		public double getPrice() { return price; }
+		public double getDiscount() { return discount; }
+		public double getFinalPrice() { return finalPrice; }
+		public long getVersion() { return version; }
+
+		public Money getPriceMoney() { return Money.fromDouble(price); }
+		public int getDiscountBasisPoints() { return Money.toBasisPoints(discount); }
+		public Money getFinalPriceMoney() { return getPriceMoney().discounted(getDiscountBasisPoints()); }
+
+		public String toString() {
+			return "v" + version + ": " + price + " - " + discount + "% = " + finalPrice;
+		}
+	}
+}
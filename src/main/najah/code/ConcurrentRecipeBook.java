@@ -0,0 +1,240 @@
+package main.najah.code;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A RecipeBook for read-heavy use.  Every mutation publishes a new
+ * immutable RecipeBookSnapshot, so readers never take a lock and never
+ * see a half-applied change.  Writers are serialized and copy the
+ * book, which suits menus that are polled far more often than edited.
+ *
+ * Each published snapshot carries a version number one higher than the
+ * one before.  Several changes can be staged in a RecipeBookTransaction
+ * and published together as a single version.  A reader keeps the
+ * version it holds for as long as it references the snapshot; versions
+ * no reader references are reclaimed by the garbage collector.
+ */
+public class ConcurrentRecipeBook {
+
+	/** Number of recipes in coffee maker */
+	private static final int NUM_RECIPES = 4;
+	/** Whether the recipe array grows instead of rejecting new recipes */
+	private final boolean growable;
+	/** The latest published snapshot */
+	private volatile RecipeBookSnapshot current;
+
+	/**
+	 * Default constructor for a ConcurrentRecipeBook.
+	 */
+	public ConcurrentRecipeBook() {
+		this(false);
+	}
+
+	/**
+	 * Creates a ConcurrentRecipeBook.  A growable book has no capacity
+	 * limit; otherwise it holds at most four recipes.
+	 * @param growable
+	 */
+	public ConcurrentRecipeBook(boolean growable) {
+		this.growable = growable;
+		this.current = new RecipeBookSnapshot(new Recipe[NUM_RECIPES], 0, new HashMap<>(), 0);
+	}
+
+	/**
+	 * Returns the current snapshot of the book.
+	 * @return RecipeBookSnapshot
+	 */
+	public RecipeBookSnapshot snapshot() {
+		return current;
+	}
+
+	/**
+	 * Returns the version of the current snapshot.
+	 * @return long
+	 */
+	public long getVersion() {
+		return current.getVersion();
+	}
+
+	/**
+	 * Returns a copy of the recipe array.  Changes to the
+	 * returned array do not affect the book.
+	 * @return Recipe[]
+	 */
+	public Recipe[] getRecipes() {
+		return current.getRecipes();
+	}
+
+	/**
+	 * Returns the recipe with the given name and null if
+	 * no such recipe exists.
+	 * @param name
+	 * @return Recipe
+	 */
+	public Recipe getRecipe(String name) {
+		return current.getRecipe(name);
+	}
+
+	/**
+	 * Returns the number of occupied slots.
+	 * @return int
+	 */
+	public int size() {
+		return current.size();
+	}
+
+	/**
+	 * Starts a transaction against this book.
+	 * @return RecipeBookTransaction
+	 */
+	public RecipeBookTransaction beginTransaction() {
+		return new RecipeBookTransaction(this, current.getVersion());
+	}
+
+	public synchronized boolean addRecipe(Recipe r) {
+		Draft draft = new Draft(current);
+		return draft.add(r) && draft.publish();
+	}
+
+	/**
+	 * Returns the name of the recipe deleted at the position specified
+	 * and null if the recipe does not exist.
+	 * @param recipeToDelete
+	 * @return String
+	 */
+	public synchronized String deleteRecipe(int recipeToDelete) {
+		Draft draft = new Draft(current);
+		String recipeName = draft.delete(recipeToDelete);
+		if (recipeName != null) {
+			draft.publish();
+		}
+		return recipeName;
+	}
+
+	/**
+	 * Returns the name of the recipe edited at the position specified
+	 * and null if the recipe does not exist.
+	 * @param recipeToEdit
+	 * @param newRecipe
+	 * @return String
+	 */
+	public synchronized String editRecipe(int recipeToEdit, Recipe newRecipe) {
+		Draft draft = new Draft(current);
+		String recipeName = draft.edit(recipeToEdit, newRecipe);
+		if (recipeName != null) {
+			draft.publish();
+		}
+		return recipeName;
+	}
+
+	/**
+	 * Applies the staged operations of a transaction to the latest
+	 * snapshot and publishes the result as one version.  Nothing is
+	 * published unless every operation succeeds.
+	 */
+	synchronized boolean commit(List<RecipeBookTransaction.Operation> operations, long baseVersion,
+			boolean requireBase) {
+		if (requireBase && current.getVersion() != baseVersion) {
+			return false;
+		}
+		Draft draft = new Draft(current);
+		for (RecipeBookTransaction.Operation op : operations) {
+			if (!op.applyTo(draft)) {
+				return false;
+			}
+		}
+		return draft.publish();
+	}
+
+	/**
+	 * A private working copy of the latest snapshot.  The recipe array
+	 * and name index are copied on first change, and recipes passed to
+	 * edit are only renamed once the draft is published.
+	 */
+	class Draft {
+
+		private final RecipeBookSnapshot base;
+		private Recipe[] recipes;
+		private Map<String, Integer> nameIndex;
+		private int size;
+		private boolean copied;
+		private final List<Recipe> edited = new ArrayList<>();
+
+		Draft(RecipeBookSnapshot base) {
+			this.base = base;
+			this.recipes = base.recipeArray();
+			this.nameIndex = base.nameIndex();
+			this.size = base.size();
+		}
+
+		boolean add(Recipe r) {
+			if (nameIndex.containsKey(r.getName())) {
+				return false;
+			}
+			if (size == recipes.length && !growable) {
+				return false;
+			}
+			copy();
+			if (size == recipes.length) {
+				recipes = Arrays.copyOf(recipes, recipes.length * 2);
+			}
+			recipes[size] = r;
+			nameIndex.put(r.getName(), size);
+			size++;
+			return true;
+		}
+
+		String delete(int slot) {
+			Recipe old = recipes[slot];
+			if (old == null) {
+				return null;
+			}
+			replace(slot, new Recipe(), "");
+			return old.getName();
+		}
+
+		String edit(int slot, Recipe r) {
+			Recipe old = recipes[slot];
+			if (old == null) {
+				return null;
+			}
+			edited.add(r);
+			replace(slot, r, "");
+			return old.getName();
+		}
+
+		/**
+		 * Puts a recipe into an occupied slot, following the same
+		 * name index rules as RecipeBook.
+		 */
+		private void replace(int slot, Recipe r, String name) {
+			copy();
+			String oldName = recipes[slot].getName();
+			recipes[slot] = r;
+			if (!oldName.equals(name)) {
+				nameIndex.remove(oldName);
+			}
+			nameIndex.putIfAbsent(name, slot);
+		}
+
+		private void copy() {
+			if (!copied) {
+				recipes = recipes.clone();
+				nameIndex = new HashMap<>(nameIndex);
+				copied = true;
+			}
+		}
+
+		boolean publish() {
+			for (Recipe r : edited) {
+				r.setName("");
+			}
+			current = new RecipeBookSnapshot(recipes, size, nameIndex, base.getVersion() + 1);
+			return true;
+		}
+	}
+}
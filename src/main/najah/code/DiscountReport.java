@@ -0,0 +1,70 @@
+package main.najah.code;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a bulk discount on a ProductCatalog.
+ */
+public class DiscountReport {
+
+	private final long productsDiscounted;
+	private final List<Rejection> rejections;
+
+	DiscountReport(long productsDiscounted, List<Rejection> rejections) {
+		this.productsDiscounted = productsDiscounted;
+		this.rejections = Collections.unmodifiableList(rejections);
+	}
+
+	/**
+	 * Returns the number of products whose discount was changed.
+	 * @return long
+	 */
+	public long getProductsDiscounted() {
+		return productsDiscounted;
+	}
+
+	/**
+	 * Returns the products whose discount was refused, ordered by name.
+	 * @return List
+	 */
+	public List<Rejection> getRejections() {
+		return rejections;
+	}
+
+	/**
+	 * A product whose new discount failed Product.applyDiscount's checks.
+	 */
+	public static class Rejection {
+
+		private final String name;
+		private final double discount;
+		private final String message;
+
+		Rejection(String name, double discount, String message) {
+			this.name = name;
+			this.discount = discount;
+			this.message = message;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Returns the discount percentage that was refused.
+		 * @return double
+		 */
+		public double getDiscount() {
+			return discount;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+
+		public String toString() {
+			return name + ": " + message + " (" + discount + ")";
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package main.najah.code;
+
+/**
+ * A request for one drink: the recipe to make and the money paid.
+ */
+public class DrinkOrder {
+
+	private final String recipeName;
+	private final int payment;
+
+	public DrinkOrder(String recipeName, int payment) {
+		if (payment < 0) throw new IllegalArgumentException("Payment must be non-negative");
+		this.recipeName = recipeName;
+		this.payment = payment;
+	}
+
+	public String getRecipeName() {
+		return recipeName;
+	}
+
+	public int getPayment() {
+		return payment;
+	}
+
+	public String toString() {
+		return recipeName + " (" + payment + ")";
+	}
+}
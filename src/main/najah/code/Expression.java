@@ -0,0 +1,78 @@
+package main.najah.code;
+
+import java.util.List;
+
+/**
+ * An arithmetic expression compiled by ExpressionCompiler.
+ *
+ * The expression is a tree of closures over int values, with every
+ * variable resolved to a slot when it is compiled.  Evaluating it walks
+ * no syntax and allocates nothing, and an expression can be evaluated by
+ * many threads at once.  Arithmetic follows Calculator: int addition,
+ * subtraction and multiplication wrap on overflow, division by zero
+ * throws ArithmeticException and the factorial of a negative number
+ * throws IllegalArgumentException.
+ */
+public class Expression {
+
+	/**
+	 * A compiled node of the expression.
+	 */
+	interface Node {
+		int eval(int[] values);
+	}
+
+	private final String source;
+	private final Node root;
+	private final List<String> variables;
+
+	Expression(String source, Node root, List<String> variables) {
+		this.source = source;
+		this.root = root;
+		this.variables = List.copyOf(variables);
+	}
+
+	/**
+	 * Returns the text the expression was compiled from.
+	 * @return String
+	 */
+	public String getSource() {
+		return source;
+	}
+
+	/**
+	 * Returns the variables in slot order, the order in which they
+	 * first appear in the source.
+	 * @return List
+	 */
+	public List<String> getVariables() {
+		return variables;
+	}
+
+	/**
+	 * Returns the slot of a variable and -1 if the expression does
+	 * not use it.
+	 * @param name
+	 * @return int
+	 */
+	public int slotOf(String name) {
+		return variables.indexOf(name);
+	}
+
+	/**
+	 * Evaluates the expression with one value per variable slot.  Callers
+	 * evaluating in a loop should reuse one array to avoid allocation.
+	 * @param values
+	 * @return int
+	 */
+	public int evaluate(int... values) {
+		if (values.length < variables.size()) {
+			throw new IllegalArgumentException("Expected " + variables.size() + " variable values");
+		}
+		return root.eval(values);
+	}
+
+	public String toString() {
+		return source;
+	}
+}
@@ -0,0 +1,321 @@
+package main.najah.code;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles arithmetic expressions into Expression closure trees and
+ * keeps the most recently used ones, keyed by their source text.
+ *
+ * The grammar has int literals, variables, parentheses, the binary
+ * operators + - * /, unary minus, postfix ! for factorial and the
+ * Calculator operations as functions: add(a, b, ...), divide(a, b) and
+ * factorial(n).  Subtrees made only of literals are computed once at
+ * compile time, unless computing them throws, in which case the error
+ * is left to evaluation.
+ */
+public class ExpressionCompiler {
+
+	private final Calculator calculator = new Calculator();
+	private final int cacheSize;
+	private final Map<String, Expression> cache;
+
+	/**
+	 * Creates a compiler caching up to 256 expressions.
+	 */
+	public ExpressionCompiler() {
+		this(256);
+	}
+
+	/**
+	 * Creates a compiler caching up to the given number of expressions.
+	 * @param cacheSize
+	 */
+	public ExpressionCompiler(int cacheSize) {
+		if (cacheSize <= 0) {
+			throw new IllegalArgumentException("Cache size must be positive");
+		}
+		this.cacheSize = cacheSize;
+		this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Expression> eldest) {
+				return size() > ExpressionCompiler.this.cacheSize;
+			}
+		};
+	}
+
+	/**
+	 * Returns the compiled form of the source, compiling it only if it
+	 * is not cached.
+	 * @param source
+	 * @return Expression
+	 * @throws IllegalArgumentException if the source is not a valid expression
+	 */
+	public Expression compile(String source) {
+		synchronized (cache) {
+			Expression cached = cache.get(source);
+			if (cached != null) {
+				return cached;
+			}
+		}
+		Expression compiled = new Parser(source).parse();
+		synchronized (cache) {
+			Expression raced = cache.putIfAbsent(source, compiled);
+			return raced != null ? raced : compiled;
+		}
+	}
+
+	/**
+	 * Returns the number of cached expressions.
+	 * @return int
+	 */
+	public int getCacheSize() {
+		synchronized (cache) {
+			return cache.size();
+		}
+	}
+
+	/**
+	 * A node whose value is known at compile time.
+	 */
+	private static class Constant implements Expression.Node {
+		final int value;
+
+		Constant(int value) {
+			this.value = value;
+		}
+
+		@Override
+		public int eval(int[] values) {
+			return value;
+		}
+	}
+
+	private interface BinaryOp {
+		int apply(int a, int b);
+	}
+
+	/**
+	 * A recursive descent parser for one source text.
+	 */
+	private class Parser {
+
+		private final String source;
+		private final List<String> variables = new ArrayList<>();
+		private int pos;
+
+		Parser(String source) {
+			this.source = source;
+		}
+
+		Expression parse() {
+			Expression.Node root = expression();
+			skipSpaces();
+			if (pos < source.length()) {
+				throw error("Unexpected '" + source.charAt(pos) + "'");
+			}
+			return new Expression(source, root, variables);
+		}
+
+		private Expression.Node expression() {
+			Expression.Node node = term();
+			while (true) {
+				if (accept('+')) {
+					node = binary(node, term(), (a, b) -> a + b);
+				} else if (accept('-')) {
+					node = binary(node, term(), (a, b) -> a - b);
+				} else {
+					return node;
+				}
+			}
+		}
+
+		private Expression.Node term() {
+			Expression.Node node = unary();
+			while (true) {
+				if (accept('*')) {
+					node = binary(node, unary(), (a, b) -> a * b);
+				} else if (accept('/')) {
+					node = binary(node, unary(), calculator::divide);
+				} else {
+					return node;
+				}
+			}
+		}
+
+		private Expression.Node unary() {
+			if (accept('-')) {
+				skipSpaces();
+				if (pos < source.length() && Character.isDigit(source.charAt(pos))) {
+					//Parse the literal with its sign so that -2147483648 fits;
+					//a literal followed by ! is negated after the factorial
+					int start = pos;
+					long value = digits(1L + Integer.MAX_VALUE);
+					if (!accept('!')) {
+						return new Constant((int) -value);
+					}
+					pos = start;
+				}
+				Expression.Node operand = unary();
+				return fold(v -> -operand.eval(v), operand);
+			}
+			return postfix();
+		}
+
+		private Expression.Node postfix() {
+			Expression.Node node = primary();
+			while (accept('!')) {
+				node = factorial(node);
+			}
+			return node;
+		}
+
+		private Expression.Node primary() {
+			skipSpaces();
+			if (pos == source.length()) {
+				throw error("Unexpected end of expression");
+			}
+			char c = source.charAt(pos);
+			if (c == '(') {
+				pos++;
+				Expression.Node node = expression();
+				expect(')');
+				return node;
+			}
+			if (Character.isDigit(c)) {
+				return number();
+			}
+			if (Character.isJavaIdentifierStart(c)) {
+				String name = identifier();
+				return accept('(') ? function(name) : variable(name);
+			}
+			throw error("Unexpected '" + c + "'");
+		}
+
+		private Expression.Node number() {
+			return new Constant((int) digits(Integer.MAX_VALUE));
+		}
+
+		/**
+		 * Reads the digits of a literal whose value may not exceed max.
+		 */
+		private long digits(long max) {
+			int start = pos;
+			long value = 0;
+			while (pos < source.length() && Character.isDigit(source.charAt(pos))) {
+				value = value * 10 + Character.digit(source.charAt(pos++), 10);
+				if (value > max) {
+					pos = start;
+					throw error("Number out of range");
+				}
+			}
+			return value;
+		}
+
+		private String identifier() {
+			int start = pos;
+			while (pos < source.length() && Character.isJavaIdentifierPart(source.charAt(pos))) {
+				pos++;
+			}
+			return source.substring(start, pos);
+		}
+
+		private Expression.Node variable(String name) {
+			int slot = variables.indexOf(name);
+			if (slot < 0) {
+				slot = variables.size();
+				variables.add(name);
+			}
+			int index = slot;
+			return v -> v[index];
+		}
+
+		private Expression.Node function(String name) {
+			int start = pos;
+			List<Expression.Node> args = new ArrayList<>();
+			if (!accept(')')) {
+				do {
+					args.add(expression());
+				} while (accept(','));
+				expect(')');
+			}
+			switch (name) {
+			case "add":
+				Expression.Node sum = args.isEmpty() ? new Constant(0) : args.get(0);
+				for (int i = 1; i < args.size(); i++) {
+					sum = binary(sum, args.get(i), (a, b) -> a + b);
+				}
+				return sum;
+			case "divide":
+				checkArity(name, args, 2, start);
+				return binary(args.get(0), args.get(1), calculator::divide);
+			case "factorial":
+				checkArity(name, args, 1, start);
+				return factorial(args.get(0));
+			default:
+				pos = start;
+				throw error("Unknown function " + name);
+			}
+		}
+
+		private void checkArity(String name, List<Expression.Node> args, int arity, int start) {
+			if (args.size() != arity) {
+				pos = start;
+				throw error(name + " takes " + arity + (arity == 1 ? " argument" : " arguments"));
+			}
+		}
+
+		private Expression.Node factorial(Expression.Node operand) {
+			return fold(v -> calculator.factorial(operand.eval(v)), operand);
+		}
+
+		private Expression.Node binary(Expression.Node left, Expression.Node right, BinaryOp op) {
+			return fold(v -> op.apply(left.eval(v), right.eval(v)), left, right);
+		}
+
+		/**
+		 * Replaces a node by its value when all its operands are constants.
+		 */
+		private Expression.Node fold(Expression.Node node, Expression.Node... operands) {
+			for (Expression.Node operand : operands) {
+				if (!(operand instanceof Constant)) {
+					return node;
+				}
+			}
+			try {
+				return new Constant(node.eval(null));
+			} catch (ArithmeticException | IllegalArgumentException e) {
+				return node;
+			}
+		}
+
+		private boolean accept(char c) {
+			skipSpaces();
+			if (pos < source.length() && source.charAt(pos) == c) {
+				pos++;
+				return true;
+			}
+			return false;
+		}
+
+		private void expect(char c) {
+			if (!accept(c)) {
+				throw error(pos < source.length() ? "Expected '" + c + "'" : "Unexpected end of expression");
+			}
+		}
+
+		private void skipSpaces() {
+			while (pos < source.length() && Character.isWhitespace(source.charAt(pos))) {
+				pos++;
+			}
+		}
+
+		private IllegalArgumentException error(String message) {
+			return new IllegalArgumentException(message + " at position " + pos);
+		}
+	}
+}
@@ -0,0 +1,229 @@
+package main.najah.code;
+
+/**
+ * A recipe that cannot change once built, so it can be shared between
+ * threads and used as a hash key without copying or locking.
+ *
+ * Two immutable recipes are equal when all their fields are equal.  The
+ * hash code depends on the name only, with the same formula as
+ * Recipe.hashCode(), and is computed once when the recipe is built.
+ */
+public final class ImmutableRecipe {
+
+	private final String name;
+	private final int price;
+	private final int amtCoffee;
+	private final int amtMilk;
+	private final int amtSugar;
+	private final int amtChocolate;
+	private final int hash;
+
+	private ImmutableRecipe(String name, int price, int amtCoffee, int amtMilk, int amtSugar, int amtChocolate) {
+		this.name = name;
+		this.price = price;
+		this.amtCoffee = amtCoffee;
+		this.amtMilk = amtMilk;
+		this.amtSugar = amtSugar;
+		this.amtChocolate = amtChocolate;
+		this.hash = 31 + name.hashCode();
+	}
+
+	/**
+	 * Returns a builder for a recipe with an empty name and no units.
+	 * @return Builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Returns an immutable copy of a recipe.  A Recipe only holds values
+	 * its setters accepted, so no validation is repeated.
+	 * @param r
+	 * @return ImmutableRecipe
+	 */
+	public static ImmutableRecipe from(Recipe r) {
+		return new ImmutableRecipe(r.getName(), r.getPrice(), r.getAmtCoffee(), r.getAmtMilk(),
+				r.getAmtSugar(), r.getAmtChocolate());
+	}
+
+	/**
+	 * Returns a new mutable Recipe with the same values.
+	 * @return Recipe
+	 */
+	public Recipe toRecipe() {
+		return new Recipe(name, price, amtCoffee, amtMilk, amtSugar, amtChocolate);
+	}
+
+	/**
+	 * Returns a builder that starts from this recipe's values.
+	 * @return Builder
+	 */
+	public Builder toBuilder() {
+		return new Builder().name(name).price(price).amtCoffee(amtCoffee).amtMilk(amtMilk)
+				.amtSugar(amtSugar).amtChocolate(amtChocolate);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getPrice() {
+		return price;
+	}
+
+	public int getAmtCoffee() {
+		return amtCoffee;
+	}
+
+	public int getAmtMilk() {
+		return amtMilk;
+	}
+
+	public int getAmtSugar() {
+		return amtSugar;
+	}
+
+	public int getAmtChocolate() {
+		return amtChocolate;
+	}
+
+	public String toString() {
+		return name;
+	}
+
+	public int hashCode() {
+		return hash;
+	}
+
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof ImmutableRecipe))
+			return false;
+		ImmutableRecipe other = (ImmutableRecipe) obj;
+		return hash == other.hash && price == other.price && amtCoffee == other.amtCoffee
+				&& amtMilk == other.amtMilk && amtSugar == other.amtSugar
+				&& amtChocolate == other.amtChocolate && name.equals(other.name);
+	}
+
+	/**
+	 * Collects the values of an ImmutableRecipe.  Text values are parsed
+	 * with Recipe.parseUnits; invalid values are only reported by build(),
+	 * with the same RecipeException the Recipe setters throw.
+	 */
+	public static final class Builder {
+
+		private String name = "";
+		private boolean internName;
+		private int price;
+		private int amtCoffee;
+		private int amtMilk;
+		private int amtSugar;
+		private int amtChocolate;
+
+		private Builder() {
+		}
+
+		/**
+		 * Sets the name.  A null name is ignored, as in Recipe.setName.
+		 * @param name
+		 * @return Builder
+		 */
+		public Builder name(String name) {
+			if (name != null) {
+				this.name = name;
+			}
+			return this;
+		}
+
+		/**
+		 * Makes build() intern the name with String.intern(), for recipes
+		 * that are built many times with the same name.  Interned names
+		 * no longer in use are reclaimed by the garbage collector.
+		 * @param internName
+		 * @return Builder
+		 */
+		public Builder internName(boolean internName) {
+			this.internName = internName;
+			return this;
+		}
+
+		public Builder price(int price) {
+			this.price = price;
+			return this;
+		}
+
+		public Builder price(CharSequence price) {
+			this.price = Recipe.parseUnits(price);
+			return this;
+		}
+
+		public Builder amtCoffee(int amtCoffee) {
+			this.amtCoffee = amtCoffee;
+			return this;
+		}
+
+		public Builder amtCoffee(CharSequence amtCoffee) {
+			this.amtCoffee = Recipe.parseUnits(amtCoffee);
+			return this;
+		}
+
+		public Builder amtMilk(int amtMilk) {
+			this.amtMilk = amtMilk;
+			return this;
+		}
+
+		public Builder amtMilk(CharSequence amtMilk) {
+			this.amtMilk = Recipe.parseUnits(amtMilk);
+			return this;
+		}
+
+		public Builder amtSugar(int amtSugar) {
+			this.amtSugar = amtSugar;
+			return this;
+		}
+
+		public Builder amtSugar(CharSequence amtSugar) {
+			this.amtSugar = Recipe.parseUnits(amtSugar);
+			return this;
+		}
+
+		public Builder amtChocolate(int amtChocolate) {
+			this.amtChocolate = amtChocolate;
+			return this;
+		}
+
+		public Builder amtChocolate(CharSequence amtChocolate) {
+			this.amtChocolate = Recipe.parseUnits(amtChocolate);
+			return this;
+		}
+
+		/**
+		 * Returns the recipe, checking the values in the order
+		 * price, coffee, milk, sugar, chocolate.
+		 * @return ImmutableRecipe
+		 * @throws RecipeException if a value is negative or was not a
+		 *         non-negative integer
+		 */
+		public ImmutableRecipe build() throws RecipeException {
+			if (price < 0) {
+				throw RecipeErrorCode.PRICE.reject();
+			}
+			if (amtCoffee < 0) {
+				throw RecipeErrorCode.COFFEE.reject();
+			}
+			if (amtMilk < 0) {
+				throw RecipeErrorCode.MILK.reject();
+			}
+			if (amtSugar < 0) {
+				throw RecipeErrorCode.SUGAR.reject();
+			}
+			if (amtChocolate < 0) {
+				throw RecipeErrorCode.CHOCOLATE.reject();
+			}
+			return new ImmutableRecipe(internName ? name.intern() : name, price, amtCoffee, amtMilk,
+					amtSugar, amtChocolate);
+		}
+	}
+}
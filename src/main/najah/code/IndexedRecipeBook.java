@@ -0,0 +1,196 @@
+package main.najah.code;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A RecipeBook with sorted secondary indexes on price and on each
+ * ingredient amount, kept up to date by addRecipe, deleteRecipe and
+ * editRecipe.  Filtered lookups go through query().
+ *
+ * Each index is a sorted array of primitive keys packing a value and a
+ * slot.  Counting the recipes in a range takes two binary searches;
+ * adding, deleting and editing shift the arrays, which takes time linear
+ * in the number of recipes.
+ *
+ * Values are indexed as they are when a recipe enters a slot; recipes
+ * must not be changed through their setters while they are in the book.
+ */
+public class IndexedRecipeBook extends RecipeBook {
+
+	/** Index of the price field; ingredients follow at 1 + ordinal */
+	static final int PRICE = 0;
+	static final int FIELDS = 1 + Ingredient.values().length;
+
+	/** One sorted array per field of keys packing value and slot, see key() */
+	private final long[][] indexes = new long[FIELDS][4];
+	/** Number of keys in each index; every indexed slot has one key per field */
+	private int indexed;
+	/** Indexed values of each slot, one column per field */
+	private final int[][] values = new int[FIELDS][4];
+
+	/**
+	 * Default constructor for an IndexedRecipeBook.
+	 */
+	public IndexedRecipeBook() {
+		this(false);
+	}
+
+	/**
+	 * Creates an IndexedRecipeBook.  A growable book has no capacity
+	 * limit; otherwise it holds at most four recipes.
+	 * @param growable
+	 */
+	public IndexedRecipeBook(boolean growable) {
+		super(growable);
+	}
+
+	/**
+	 * Starts a query over the recipes in this book.
+	 * @return RecipeQuery
+	 */
+	public RecipeQuery query() {
+		return new RecipeQuery(this);
+	}
+
+	@Override
+	public synchronized boolean addRecipe(Recipe r) {
+		if (!super.addRecipe(r)) {
+			return false;
+		}
+		index(size() - 1, r);
+		return true;
+	}
+
+	@Override
+	public synchronized String deleteRecipe(int recipeToDelete) {
+		String recipeName = super.deleteRecipe(recipeToDelete);
+		if (recipeName != null) {
+			reindex(recipeToDelete);
+		}
+		return recipeName;
+	}
+
+	@Override
+	public synchronized String editRecipe(int recipeToEdit, Recipe newRecipe) {
+		String recipeName = super.editRecipe(recipeToEdit, newRecipe);
+		if (recipeName != null) {
+			reindex(recipeToEdit);
+		}
+		return recipeName;
+	}
+
+	/**
+	 * Returns the recipes whose fields lie within the given inclusive
+	 * bounds, in slot order.  The candidates of each constrained field
+	 * are counted with two binary searches, the field with the fewest is
+	 * read from its index and the others are checked per candidate, so
+	 * the work is logarithmic in the size of the book plus proportional
+	 * to the smallest range.
+	 */
+	synchronized List<Recipe> find(int[] min, int[] max) {
+		int best = -1;
+		int bestFrom = 0;
+		int bestTo = Integer.MAX_VALUE;
+		for (int f = 0; f < FIELDS; f++) {
+			if (min[f] > max[f]) {
+				return new ArrayList<>();
+			}
+			if (min[f] == Integer.MIN_VALUE && max[f] == Integer.MAX_VALUE) {
+				continue;
+			}
+			int from = position(indexes[f], key(min[f], 0));
+			int to = position(indexes[f], key(max[f], Integer.MAX_VALUE));
+			if (best < 0 || to - from < bestTo - bestFrom) {
+				best = f;
+				bestFrom = from;
+				bestTo = to;
+			}
+		}
+		Recipe[] recipes = getRecipes();
+		int[] slots;
+		int n = 0;
+		if (best < 0) {
+			slots = new int[size()];
+			for (int slot = 0; slot < slots.length; slot++) {
+				slots[n++] = slot;
+			}
+		} else {
+			long[] index = indexes[best];
+			slots = new int[bestTo - bestFrom];
+			for (int i = bestFrom; i < bestTo; i++) {
+				int slot = (int) index[i];
+				if (matches(slot, min, max)) {
+					slots[n++] = slot;
+				}
+			}
+			Arrays.sort(slots, 0, n);
+		}
+		List<Recipe> result = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			result.add(recipes[slots[i]]);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the position of the first key of an index not below the given key.
+	 */
+	private int position(long[] index, long key) {
+		int found = Arrays.binarySearch(index, 0, indexed, key);
+		return found >= 0 ? found : -found - 1;
+	}
+
+	/**
+	 * Packs a value and a slot so that entries sort by value, then slot.
+	 */
+	private static long key(int value, int slot) {
+		return ((long) value << 32) | slot;
+	}
+
+	private boolean matches(int slot, int[] min, int[] max) {
+		for (int f = 0; f < FIELDS; f++) {
+			int v = values[f][slot];
+			if (v < min[f] || v > max[f]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void reindex(int slot) {
+		for (int f = 0; f < FIELDS; f++) {
+			long[] index = indexes[f];
+			int at = position(index, key(values[f][slot], slot));
+			System.arraycopy(index, at + 1, index, at, indexed - at - 1);
+		}
+		indexed--;
+		index(slot, getRecipes()[slot]);
+	}
+
+	private void index(int slot, Recipe r) {
+		if (slot >= values[0].length) {
+			for (int f = 0; f < FIELDS; f++) {
+				values[f] = Arrays.copyOf(values[f], Math.max(slot + 1, values[f].length * 2));
+			}
+		}
+		values[PRICE][slot] = r.getPrice();
+		for (Ingredient i : Ingredient.values()) {
+			values[1 + i.ordinal()][slot] = i.amountIn(r);
+		}
+		if (indexed == indexes[0].length) {
+			for (int f = 0; f < FIELDS; f++) {
+				indexes[f] = Arrays.copyOf(indexes[f], indexed * 2);
+			}
+		}
+		for (int f = 0; f < FIELDS; f++) {
+			long[] index = indexes[f];
+			long key = key(values[f][slot], slot);
+			int at = position(index, key);
+			System.arraycopy(index, at, index, at + 1, indexed - at);
+			index[at] = key;
+		}
+		indexed++;
+	}
+}
@@ -0,0 +1,26 @@
+package main.najah.code;
+
+/**
+ * The ingredients a recipe uses, in the order Recipe declares them.
+ */
+public enum Ingredient {
+	COFFEE, MILK, SUGAR, CHOCOLATE;
+
+	/**
+	 * Returns the units of this ingredient the recipe needs.
+	 * @param r
+	 * @return int
+	 */
+	public int amountIn(Recipe r) {
+		switch (this) {
+		case COFFEE:
+			return r.getAmtCoffee();
+		case MILK:
+			return r.getAmtMilk();
+		case SUGAR:
+			return r.getAmtSugar();
+		default:
+			return r.getAmtChocolate();
+		}
+	}
+}
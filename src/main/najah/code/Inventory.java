@@ -0,0 +1,354 @@
+package main.najah.code;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The coffee, milk, sugar and chocolate a coffee maker has on hand.
+ *
+ * Stock is split into sixteen stripes so threads on different cores
+ * update different memory.  Each stripe packs the four amounts into one long,
+ * 16 bits per ingredient, so all four are taken or returned with a
+ * single compare-and-set and no lock.  A reservation is served from one
+ * stripe when it can be; otherwise it gathers units from several
+ * stripes and gives them back if the total falls short, so it still
+ * takes all four amounts or none.  While a gathering reservation is in
+ * progress, other reservations can see less stock than there is.
+ *
+ * Adding stock claims room in each stripe with the same compare-and-set
+ * and visits every stripe at most once.  If the stripes are full before
+ * all units are placed, the units placed so far are taken out again and
+ * an IllegalStateException is thrown; units that concurrent reservations
+ * took in the meantime stay taken.
+ */
+public class Inventory {
+
+	/** Most units of one ingredient a single stripe holds */
+	private static final int STRIPE_MAX = 0xFFFF;
+	/** Longs between stripes, so that stripes sit on separate cache lines */
+	private static final int SPACING = 8;
+	/** Number of stripes, a power of two; it is fixed rather than derived
+	 * from the core count so that the capacity is the same on every machine */
+	private static final int STRIPES = 16;
+	private static final int INGREDIENTS = Ingredient.values().length;
+
+	private final AtomicLongArray cells = new AtomicLongArray(STRIPES * SPACING);
+
+	/**
+	 * Creates an empty inventory.
+	 */
+	public Inventory() {
+	}
+
+	/**
+	 * Creates an inventory holding the given units.
+	 * @param coffee
+	 * @param milk
+	 * @param sugar
+	 * @param chocolate
+	 */
+	public Inventory(int coffee, int milk, int sugar, int chocolate) {
+		this();
+		add(checkedRestock(coffee, milk, sugar, chocolate));
+	}
+
+	/**
+	 * Returns the most units of one ingredient the inventory can hold.
+	 * @return int
+	 */
+	public int getCapacity() {
+		return STRIPES * STRIPE_MAX;
+	}
+
+	/**
+	 * Returns the units of an ingredient on hand.
+	 * @param ingredient
+	 * @return int
+	 */
+	public int getStock(Ingredient ingredient) {
+		int total = 0;
+		for (int s = 0; s < STRIPES; s++) {
+			total += field(cells.get(s * SPACING), ingredient.ordinal());
+		}
+		return total;
+	}
+
+	/**
+	 * Adds units of all four ingredients in one step per stripe.
+	 * @param coffee
+	 * @param milk
+	 * @param sugar
+	 * @param chocolate
+	 * @throws IllegalArgumentException if an amount is negative
+	 * @throws IllegalStateException if the stock would exceed the capacity
+	 */
+	public void restock(int coffee, int milk, int sugar, int chocolate) {
+		add(checkedRestock(coffee, milk, sugar, chocolate));
+	}
+
+	private int[] checkedRestock(int coffee, int milk, int sugar, int chocolate) {
+		if (coffee < 0 || milk < 0 || sugar < 0 || chocolate < 0) {
+			throw new IllegalArgumentException("Units to restock must be non-negative");
+		}
+		return checkedCapacity(new int[] {coffee, milk, sugar, chocolate});
+	}
+
+	/**
+	 * Fails fast when the current stock leaves no room for the amounts.
+	 * add() enforces the capacity again against concurrent changes.
+	 */
+	private int[] checkedCapacity(int[] amounts) {
+		int[] stock = stock();
+		for (int i = 0; i < INGREDIENTS; i++) {
+			if ((long) stock[i] + amounts[i] > (long) STRIPES * STRIPE_MAX) {
+				throw new IllegalStateException("Inventory capacity exceeded");
+			}
+		}
+		return amounts;
+	}
+
+	/**
+	 * Takes the ingredients for one serving of a recipe, all four
+	 * amounts or none.  Returns true if they were taken.
+	 * @param r
+	 * @return boolean
+	 */
+	public boolean reserve(Recipe r) {
+		return reserve(r, 1);
+	}
+
+	/**
+	 * Takes the ingredients for the given number of servings of a
+	 * recipe, all of them or none.  Returns true if they were taken.
+	 * @param r
+	 * @param servings
+	 * @return boolean
+	 * @throws IllegalStateException if a failed reservation cannot put its
+	 *         units back because concurrent restocks filled their room
+	 */
+	public boolean reserve(Recipe r, int servings) {
+		if (servings < 0) {
+			throw new IllegalArgumentException("Servings must be non-negative");
+		}
+		int[] need = new int[INGREDIENTS];
+		long combined = 0;
+		for (Ingredient i : Ingredient.values()) {
+			long units = (long) i.amountIn(r) * servings;
+			if (units > getCapacity()) {
+				return false;
+			}
+			need[i.ordinal()] = (int) units;
+			combined |= units;
+		}
+		if (combined == 0) {
+			return true;
+		}
+		if (combined <= STRIPE_MAX && takeFromOneStripe(need)) {
+			return true;
+		}
+		return gather(need);
+	}
+
+	/**
+	 * Returns the ingredients of one serving of a recipe, for
+	 * example when an order is cancelled after its reservation.
+	 * @param r
+	 * @throws IllegalStateException if the stock would exceed the capacity
+	 */
+	public void release(Recipe r) {
+		int[] amounts = new int[INGREDIENTS];
+		for (Ingredient i : Ingredient.values()) {
+			amounts[i.ordinal()] = i.amountIn(r);
+		}
+		add(checkedCapacity(amounts));
+	}
+
+	/**
+	 * Returns true if the inventory currently holds enough for one
+	 * serving of the recipe.
+	 * @param r
+	 * @return boolean
+	 */
+	public boolean canMake(Recipe r) {
+		return canMake(r, stock());
+	}
+
+	/**
+	 * Returns the recipes of the book that the current stock is enough
+	 * for, in slot order.  The stock is read once for the whole book.
+	 * @param book
+	 * @return List
+	 */
+	public List<Recipe> getMakeableRecipes(RecipeBook book) {
+		int[] stock = stock();
+		List<Recipe> makeable = new ArrayList<>();
+		for (Recipe r : book.getRecipes()) {
+			if (r != null && canMake(r, stock)) {
+				makeable.add(r);
+			}
+		}
+		return makeable;
+	}
+
+	private static boolean canMake(Recipe r, int[] stock) {
+		for (Ingredient i : Ingredient.values()) {
+			if (i.amountIn(r) > stock[i.ordinal()]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int[] stock() {
+		int[] stock = new int[INGREDIENTS];
+		for (int s = 0; s < STRIPES; s++) {
+			long cell = cells.get(s * SPACING);
+			for (int i = 0; i < INGREDIENTS; i++) {
+				stock[i] += field(cell, i);
+			}
+		}
+		return stock;
+	}
+
+	/**
+	 * Tries each stripe, starting with this thread's own, for one that
+	 * holds every needed amount.
+	 */
+	private boolean takeFromOneStripe(int[] need) {
+		long packed = pack(need);
+		int home = home();
+		for (int n = 0; n < STRIPES; n++) {
+			int index = ((home + n) & (STRIPES - 1)) * SPACING;
+			long cell = cells.get(index);
+			while (covers(cell, need)) {
+				// No field borrows from its neighbour because each covers its need
+				if (cells.compareAndSet(index, cell, cell - packed)) {
+					return true;
+				}
+				cell = cells.get(index);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Takes what each stripe can give until the need is met.  If a full
+	 * pass falls short, everything taken is put back.
+	 */
+	private boolean gather(int[] need) {
+		int[] remaining = take(need);
+		if (isZero(remaining)) {
+			return true;
+		}
+		int[] taken = new int[INGREDIENTS];
+		for (int i = 0; i < INGREDIENTS; i++) {
+			taken[i] = need[i] - remaining[i];
+		}
+		//Only fails if restocks filled the room these units left behind
+		add(taken);
+		return false;
+	}
+
+	/**
+	 * Takes what each stripe can give, visiting each stripe once, and
+	 * returns the units still missing.
+	 */
+	private int[] take(int[] amounts) {
+		int[] remaining = amounts.clone();
+		int home = home();
+		for (int n = 0; n < STRIPES && !isZero(remaining); n++) {
+			int index = ((home + n) & (STRIPES - 1)) * SPACING;
+			while (true) {
+				long cell = cells.get(index);
+				long take = 0;
+				for (int i = 0; i < INGREDIENTS; i++) {
+					take |= (long) Math.min(field(cell, i), remaining[i]) << (16 * i);
+				}
+				if (take == 0) {
+					break;
+				}
+				if (cells.compareAndSet(index, cell, cell - take)) {
+					for (int i = 0; i < INGREDIENTS; i++) {
+						remaining[i] -= field(take, i);
+					}
+					break;
+				}
+			}
+		}
+		return remaining;
+	}
+
+	/**
+	 * Adds units to the stripes, starting with this thread's own and
+	 * filling each up to its limit.  If they do not all fit, the units
+	 * added are taken out again.
+	 * @throws IllegalStateException if the stock would exceed the capacity
+	 */
+	private void add(int[] amounts) {
+		int[] remaining = amounts.clone();
+		int home = home();
+		for (int n = 0; n < STRIPES && !isZero(remaining); n++) {
+			int index = ((home + n) & (STRIPES - 1)) * SPACING;
+			while (true) {
+				long cell = cells.get(index);
+				long put = 0;
+				for (int i = 0; i < INGREDIENTS; i++) {
+					put |= (long) Math.min(STRIPE_MAX - field(cell, i), remaining[i]) << (16 * i);
+				}
+				if (put == 0) {
+					break;
+				}
+				if (cells.compareAndSet(index, cell, cell + put)) {
+					for (int i = 0; i < INGREDIENTS; i++) {
+						remaining[i] -= field(put, i);
+					}
+					break;
+				}
+			}
+		}
+		if (!isZero(remaining)) {
+			int[] added = new int[INGREDIENTS];
+			for (int i = 0; i < INGREDIENTS; i++) {
+				added[i] = amounts[i] - remaining[i];
+			}
+			take(added);
+			throw new IllegalStateException("Inventory capacity exceeded");
+		}
+	}
+
+	private int home() {
+		long id = Thread.currentThread().threadId();
+		return (int) (id ^ (id >>> 16)) & (STRIPES - 1);
+	}
+
+	private static boolean covers(long cell, int[] need) {
+		for (int i = 0; i < INGREDIENTS; i++) {
+			if (field(cell, i) < need[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isZero(int[] amounts) {
+		for (int a : amounts) {
+			if (a != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static long pack(int[] amounts) {
+		long packed = 0;
+		for (int i = 0; i < INGREDIENTS; i++) {
+			packed |= (long) amounts[i] << (16 * i);
+		}
+		return packed;
+	}
+
+	private static int field(long cell, int ingredient) {
+		return (int) (cell >>> (16 * ingredient)) & STRIPE_MAX;
+	}
+}
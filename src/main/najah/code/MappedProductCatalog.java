@@ -0,0 +1,364 @@
+package main.najah.code;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A catalog of products stored in a memory-mapped file.
+ *
+ * The file holds a header, a fixed table of hash buckets and then the
+ * product records in the order they were added.  Each bucket holds the
+ * offset of the newest record whose name hashes to it, and each record
+ * the offset of the next older one, so a lookup follows one short chain.
+ * Opening a catalog maps the file and reads the header; no record is
+ * read until it is looked up, whatever the size of the catalog.
+ *
+ * Records are materialized on demand, either as a Product copy or as a
+ * View that reads the mapped file on every call.  New records are
+ * appended at the end, and the mapping grows when they no longer fit.
+ * Changes reach the storage device when the catalog is flushed or closed.
+ * Once closed, the catalog and its views throw IllegalStateException.
+ */
+public class MappedProductCatalog implements Closeable {
+
+	private static final int MAGIC = 0x50524443;
+	private static final int VERSION = 1;
+	/** Magic, version, bucket count, size and end of the last record */
+	private static final int HEADER_SIZE = 20;
+	private static final int SIZE_OFFSET = 12;
+	private static final int END_OFFSET = 16;
+	/** Next record, name hash, price, discount and name length, followed by the name */
+	private static final int RECORD_HEADER_SIZE = 4 + 4 + 8 + 8 + 4;
+	private static final int HASH = 4;
+	private static final int PRICE = 8;
+	private static final int DISCOUNT = 16;
+	private static final int NAME_LENGTH = 24;
+	/** Room mapped for records beyond the current end when a catalog is opened */
+	private static final int INITIAL_SPACE = 64 * 1024;
+
+	private final FileChannel channel;
+	private MappedByteBuffer map;
+	private final int bucketCount;
+	private int size;
+	/** Offset just past the last record */
+	private int end;
+
+	/**
+	 * Opens the catalog stored at the given path, creating it with the
+	 * given number of hash buckets if it does not exist.  An existing
+	 * catalog keeps the bucket count it was created with.
+	 * @param file
+	 * @param bucketCount   roughly the number of products expected
+	 * @throws IOException if the file cannot be opened, is not a product
+	 *         catalog, or its header does not fit the file
+	 */
+	public MappedProductCatalog(Path file, int bucketCount) throws IOException {
+		if (bucketCount <= 0) throw new IllegalArgumentException("Bucket count must be positive");
+		channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			boolean created = channel.size() == 0;
+			if (!created) {
+				ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+				channel.read(header, 0);
+				header.flip();
+				if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC
+						|| header.getInt() != VERSION) {
+					throw new IOException("Not a product catalog file: " + file);
+				}
+				bucketCount = header.getInt();
+				size = header.getInt();
+				end = header.getInt();
+				//The bucket table and every record must lie within the file
+				if (bucketCount <= 0 || size < 0 || end < bucketsEnd(bucketCount) || end > channel.size()) {
+					throw new IOException("Corrupt product catalog file: " + file);
+				}
+			} else {
+				if (bucketsEnd(bucketCount) > Integer.MAX_VALUE) {
+					throw new IllegalArgumentException("Too many buckets");
+				}
+				end = (int) bucketsEnd(bucketCount);
+			}
+			this.bucketCount = bucketCount;
+			map = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+					Math.min(Integer.MAX_VALUE, (long) end + INITIAL_SPACE));
+			if (created) {
+				map.putInt(0, MAGIC);
+				map.putInt(4, VERSION);
+				map.putInt(8, bucketCount);
+				map.putInt(SIZE_OFFSET, 0);
+				map.putInt(END_OFFSET, end);
+			}
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the number of products.
+	 * @return int
+	 */
+	public synchronized int size() {
+		ensureOpen();
+		return size;
+	}
+
+	/**
+	 * Returns the number of hash buckets.
+	 * @return int
+	 */
+	public int bucketCount() {
+		return bucketCount;
+	}
+
+	/**
+	 * Appends a product unless one with the same name is already stored.
+	 * @param p
+	 * @return boolean
+	 */
+	public synchronized boolean add(Product p) {
+		byte[] name = p.getName().getBytes(StandardCharsets.UTF_8);
+		int hash = hash(name);
+		if (find(name, hash) != 0) {
+			return false;
+		}
+		int record = end;
+		long recordEnd = (long) record + RECORD_HEADER_SIZE + name.length;
+		ensureMapped(recordEnd);
+		int bucket = bucketOffset(hash);
+		map.putInt(record, map.getInt(bucket));
+		map.putInt(record + HASH, hash);
+		double price = p.getPrice();
+		double discount = p.getDiscount();
+		if (p instanceof ConcurrentProduct) {
+			ConcurrentProduct.Snapshot s = ((ConcurrentProduct) p).snapshot();
+			price = s.getPrice();
+			discount = s.getDiscount();
+		}
+		map.putDouble(record + PRICE, price);
+		map.putDouble(record + DISCOUNT, discount);
+		map.putInt(record + NAME_LENGTH, name.length);
+		map.put(record + RECORD_HEADER_SIZE, name);
+		//Publish the record only once it is complete
+		end = (int) recordEnd;
+		map.putInt(END_OFFSET, end);
+		map.putInt(bucket, record);
+		map.putInt(SIZE_OFFSET, ++size);
+		return true;
+	}
+
+	/**
+	 * Returns a copy of the product with the given name and null if
+	 * there is none.
+	 * @param name
+	 * @return Product
+	 */
+	public synchronized Product get(String name) {
+		int record = find(name);
+		return record == 0 ? null : read(record);
+	}
+
+	/**
+	 * Returns a view of the product with the given name and null if
+	 * there is none.
+	 * @param name
+	 * @return View
+	 */
+	public synchronized View view(String name) {
+		int record = find(name);
+		return record == 0 ? null : new View(record);
+	}
+
+	/**
+	 * Returns whether a product with the given name is stored.
+	 * @param name
+	 * @return boolean
+	 */
+	public synchronized boolean contains(String name) {
+		return find(name) != 0;
+	}
+
+	/**
+	 * Changes the discount of a stored product in place.
+	 * @param name
+	 * @param discountPercentage
+	 * @return boolean   false if there is no such product
+	 */
+	public synchronized boolean applyDiscount(String name, double discountPercentage) {
+		Product.checkDiscount(discountPercentage);
+		int record = find(name);
+		if (record == 0) {
+			return false;
+		}
+		map.putDouble(record + DISCOUNT, discountPercentage);
+		return true;
+	}
+
+	/**
+	 * Writes changes made so far to the storage device.
+	 */
+	public synchronized void flush() {
+		ensureOpen();
+		map.force();
+	}
+
+	/**
+	 * Flushes the catalog and closes its file.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (!channel.isOpen()) {
+			return;
+		}
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * A product read from the mapped file on every call.  Reflects
+	 * discounts applied after it was created.
+	 */
+	public final class View {
+
+		private final int record;
+
+		private View(int record) {
+			this.record = record;
+		}
+
+		public String getName() {
+			synchronized (MappedProductCatalog.this) {
+				ensureOpen();
+				return readName(record);
+			}
+		}
+
+		public double getPrice() {
+			synchronized (MappedProductCatalog.this) {
+				ensureOpen();
+				return map.getDouble(record + PRICE);
+			}
+		}
+
+		public double getDiscount() {
+			synchronized (MappedProductCatalog.this) {
+				ensureOpen();
+				return map.getDouble(record + DISCOUNT);
+			}
+		}
+
+		public double getFinalPrice() {
+			synchronized (MappedProductCatalog.this) {
+				ensureOpen();
+				return map.getDouble(record + PRICE) * (1 - map.getDouble(record + DISCOUNT) / 100);
+			}
+		}
+
+		/**
+		 * Returns a copy of the product as it is now.
+		 * @return Product
+		 */
+		public Product toProduct() {
+			synchronized (MappedProductCatalog.this) {
+				ensureOpen();
+				return read(record);
+			}
+		}
+	}
+
+	/**
+	 * Rejects calls once the catalog is closed; its mapping stays
+	 * readable, but writes through it would never be flushed.
+	 */
+	private void ensureOpen() {
+		if (!channel.isOpen()) {
+			throw new IllegalStateException("Catalog is closed");
+		}
+	}
+
+	private static long bucketsEnd(int bucketCount) {
+		return HEADER_SIZE + bucketCount * 4L;
+	}
+
+	private int bucketOffset(int hash) {
+		return HEADER_SIZE + (hash & 0x7fffffff) % bucketCount * 4;
+	}
+
+	private static int hash(byte[] name) {
+		int h = 1;
+		for (byte b : name) {
+			h = 31 * h + b;
+		}
+		return h ^ (h >>> 16);
+	}
+
+	private int find(String name) {
+		byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+		return find(bytes, hash(bytes));
+	}
+
+	/**
+	 * Returns the offset of the record with the given name, or 0.
+	 * Each record ends before the newer one that points to it starts,
+	 * so a chain that does not descend within the records is corrupt.
+	 */
+	private int find(byte[] name, int hash) {
+		ensureOpen();
+		int limit = end;
+		for (int record = map.getInt(bucketOffset(hash)); record != 0; record = map.getInt(record)) {
+			if (record < bucketsEnd(bucketCount) || record > limit - RECORD_HEADER_SIZE
+					|| map.getInt(record + NAME_LENGTH) < 0
+					|| record + RECORD_HEADER_SIZE + (long) map.getInt(record + NAME_LENGTH) > limit) {
+				throw new IllegalStateException("Corrupt product catalog");
+			}
+			limit = record;
+			if (map.getInt(record + HASH) == hash && map.getInt(record + NAME_LENGTH) == name.length
+					&& map.slice(record + RECORD_HEADER_SIZE, name.length).equals(ByteBuffer.wrap(name))) {
+				return record;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Maps the file up to at least the given offset, doubling the mapping
+	 * so that appends remap rarely.
+	 */
+	private void ensureMapped(long required) {
+		if (required <= map.capacity()) {
+			return;
+		}
+		if (required > Integer.MAX_VALUE) {
+			throw new IllegalStateException("Catalog file is full");
+		}
+		try {
+			map = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+					Math.min(Integer.MAX_VALUE, Math.max(required, 2L * map.capacity())));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private String readName(int record) {
+		byte[] name = new byte[map.getInt(record + NAME_LENGTH)];
+		map.get(record + RECORD_HEADER_SIZE, name);
+		return new String(name, StandardCharsets.UTF_8);
+	}
+
+	private Product read(int record) {
+		Product p = new Product(readName(record), map.getDouble(record + PRICE));
+		p.applyDiscount(map.getDouble(record + DISCOUNT));
+		return p;
+	}
+}
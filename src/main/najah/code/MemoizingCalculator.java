@@ -0,0 +1,402 @@
+package main.najah.code;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe Calculator front end that remembers results.
+ *
+ * Results are kept in a bounded cache split into stripes, each an LRU
+ * map behind its own lock, so threads working on different arguments
+ * rarely wait for each other.  A call whose result is being computed by
+ * another thread waits for that computation instead of starting its own.
+ * Exceptions thrown by the Calculator are cached like results: every
+ * later call with the same arguments throws the same exception instance.
+ *
+ * The async methods queue their request and return at once.  Queued
+ * requests are served in batches on the executor, and identical
+ * requests in a batch are computed once.
+ */
+public class MemoizingCalculator {
+
+	/**
+	 * The operations whose results are remembered.
+	 */
+	public enum Operation {
+		FACTORIAL, DIVIDE, FACTORIAL_BIG
+	}
+
+	private final Calculator calculator;
+	private final Stripe[] stripes;
+	private final Map<Key, CompletableFuture<Outcome>> inFlight = new ConcurrentHashMap<>();
+	private final Executor executor;
+	private final int maxBatch;
+	private final Queue<Request> queue = new ConcurrentLinkedQueue<>();
+	/** Pending drain requests; only the thread that raises it from 0 drains */
+	private final AtomicInteger work = new AtomicInteger();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+	private final LatencyStats[] latency = new LatencyStats[Operation.values().length];
+
+	/**
+	 * Creates a calculator remembering up to 1024 results in 16 stripes,
+	 * with async batches of up to 64 requests on the common pool.
+	 */
+	public MemoizingCalculator() {
+		this(new Calculator(), 1024, 16, ForkJoinPool.commonPool(), 64);
+	}
+
+	/**
+	 * Creates a memoizing calculator.
+	 * @param calculator   computes the results
+	 * @param maxEntries   most results remembered
+	 * @param stripes      independently locked parts of the cache
+	 * @param executor     serves async requests
+	 * @param maxBatch     most async requests served in one run
+	 */
+	public MemoizingCalculator(Calculator calculator, int maxEntries, int stripes, Executor executor, int maxBatch) {
+		if (maxEntries <= 0 || stripes <= 0 || maxBatch <= 0) {
+			throw new IllegalArgumentException("Cache and batch sizes must be positive");
+		}
+		this.calculator = calculator;
+		this.executor = executor;
+		this.maxBatch = maxBatch;
+		int count = Math.min(stripes, maxEntries);
+		this.stripes = new Stripe[count];
+		for (int i = 0; i < count; i++) {
+			//Spread the entries so the stripes add up to maxEntries
+			this.stripes[i] = new Stripe(maxEntries / count + (i < maxEntries % count ? 1 : 0));
+		}
+		for (Operation op : Operation.values()) {
+			latency[op.ordinal()] = new LatencyStats(op);
+		}
+	}
+
+	public int factorial(int n) {
+		return (Integer) get(new Key(Operation.FACTORIAL, n, 0));
+	}
+
+	public int divide(int a, int b) {
+		return (Integer) get(new Key(Operation.DIVIDE, a, b));
+	}
+
+	public BigInteger factorialBig(int n) {
+		return (BigInteger) get(new Key(Operation.FACTORIAL_BIG, n, 0));
+	}
+
+	public CompletableFuture<Integer> factorialAsync(int n) {
+		return submit(new Key(Operation.FACTORIAL, n, 0));
+	}
+
+	public CompletableFuture<Integer> divideAsync(int a, int b) {
+		return submit(new Key(Operation.DIVIDE, a, b));
+	}
+
+	public CompletableFuture<BigInteger> factorialBigAsync(int n) {
+		return submit(new Key(Operation.FACTORIAL_BIG, n, 0));
+	}
+
+	/**
+	 * Returns the number of calls answered from the cache.
+	 * @return long
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns the number of calls that computed their result.
+	 * @return long
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * Returns the number of calls that waited for another thread's
+	 * computation of the same result.
+	 * @return long
+	 */
+	public long getCoalescedCount() {
+		return coalesced.sum();
+	}
+
+	/**
+	 * Returns the number of results in the cache.
+	 * @return int
+	 */
+	public int getCacheSize() {
+		int size = 0;
+		for (Stripe s : stripes) {
+			synchronized (s) {
+				size += s.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the time spent computing results of an operation.
+	 * @param op
+	 * @return LatencyStats
+	 */
+	public LatencyStats getLatencyStats(Operation op) {
+		return latency[op.ordinal()];
+	}
+
+	private Object get(Key key) {
+		return outcome(key).get();
+	}
+
+	private Outcome outcome(Key key) {
+		Stripe stripe = stripes[Math.floorMod(key.hashCode(), stripes.length)];
+		Outcome cached;
+		synchronized (stripe) {
+			cached = stripe.get(key);
+		}
+		if (cached != null) {
+			hits.increment();
+			return cached;
+		}
+		CompletableFuture<Outcome> mine = new CompletableFuture<>();
+		CompletableFuture<Outcome> running = inFlight.putIfAbsent(key, mine);
+		if (running != null) {
+			coalesced.increment();
+			return running.join();
+		}
+		try {
+			//The computation may have finished between the lookup and putIfAbsent
+			synchronized (stripe) {
+				cached = stripe.get(key);
+			}
+			if (cached != null) {
+				hits.increment();
+			} else {
+				misses.increment();
+				cached = compute(key);
+				synchronized (stripe) {
+					stripe.put(key, cached);
+				}
+			}
+			mine.complete(cached);
+			return cached;
+		} catch (Error e) {
+			mine.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, mine);
+		}
+	}
+
+	private Outcome compute(Key key) {
+		long start = System.nanoTime();
+		try {
+			switch (key.op) {
+			case FACTORIAL:
+				return new Outcome(calculator.factorial(key.a), null);
+			case DIVIDE:
+				return new Outcome(calculator.divide(key.a, key.b), null);
+			default:
+				return new Outcome(calculator.factorialBig(key.a), null);
+			}
+		} catch (RuntimeException e) {
+			return new Outcome(null, e);
+		} finally {
+			latency[key.op.ordinal()].record(System.nanoTime() - start);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> CompletableFuture<T> submit(Key key) {
+		Request request = new Request(key);
+		queue.add(request);
+		if (work.getAndIncrement() == 0) {
+			executor.execute(this::drain);
+		}
+		return (CompletableFuture<T>) (CompletableFuture<?>) request.result;
+	}
+
+	/**
+	 * Serves queued requests in batches, computing each distinct key
+	 * of a batch once.
+	 */
+	private void drain() {
+		int missed = 1;
+		Map<Key, List<Request>> batch = new LinkedHashMap<>();
+		do {
+			Request request;
+			while ((request = queue.poll()) != null) {
+				batch.computeIfAbsent(request.key, k -> new ArrayList<>()).add(request);
+				if (batch.size() == maxBatch) {
+					serve(batch);
+				}
+			}
+			serve(batch);
+			missed = work.addAndGet(-missed);
+		} while (missed != 0);
+	}
+
+	private void serve(Map<Key, List<Request>> batch) {
+		for (Map.Entry<Key, List<Request>> e : batch.entrySet()) {
+			Outcome outcome;
+			try {
+				outcome = outcome(e.getKey());
+			} catch (Error err) {
+				e.getValue().forEach(r -> r.result.completeExceptionally(err));
+				continue;
+			}
+			for (Request r : e.getValue()) {
+				if (outcome.failure != null) {
+					r.result.completeExceptionally(outcome.failure);
+				} else {
+					r.result.complete(outcome.value);
+				}
+			}
+		}
+		batch.clear();
+	}
+
+	/**
+	 * The time spent computing results of one operation.
+	 */
+	public static class LatencyStats {
+
+		private final Operation op;
+		private final LongAdder count = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+		LatencyStats(Operation op) {
+			this.op = op;
+		}
+
+		void record(long nanos) {
+			count.increment();
+			totalNanos.add(nanos);
+			maxNanos.accumulate(nanos);
+		}
+
+		public Operation getOperation() {
+			return op;
+		}
+
+		/**
+		 * Returns the number of results computed.
+		 * @return long
+		 */
+		public long getCount() {
+			return count.sum();
+		}
+
+		/**
+		 * Returns the mean computation time in nanoseconds, or 0 if
+		 * nothing was computed.
+		 * @return double
+		 */
+		public double getAverageNanos() {
+			long n = count.sum();
+			return n == 0 ? 0 : (double) totalNanos.sum() / n;
+		}
+
+		/**
+		 * Returns the longest computation time in nanoseconds.
+		 * @return long
+		 */
+		public long getMaxNanos() {
+			return maxNanos.get();
+		}
+
+		public String toString() {
+			return op + ": " + getCount() + " computed, avg " + Math.round(getAverageNanos()) + " ns, max "
+					+ getMaxNanos() + " ns";
+		}
+	}
+
+	/**
+	 * The arguments of a call.
+	 */
+	private static final class Key {
+		final Operation op;
+		final int a;
+		final int b;
+
+		Key(Operation op, int a, int b) {
+			this.op = op;
+			this.a = a;
+			this.b = b;
+		}
+
+		public int hashCode() {
+			int h = (op.ordinal() * 31 + a) * 31 + b;
+			return h ^ (h >>> 16);
+		}
+
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return op == other.op && a == other.a && b == other.b;
+		}
+	}
+
+	/**
+	 * The value a call returned or the exception it threw.
+	 */
+	private static final class Outcome {
+		final Object value;
+		final RuntimeException failure;
+
+		Outcome(Object value, RuntimeException failure) {
+			this.value = value;
+			this.failure = failure;
+		}
+
+		Object get() {
+			if (failure != null) {
+				throw failure;
+			}
+			return value;
+		}
+	}
+
+	private static final class Request {
+		final Key key;
+		final CompletableFuture<Object> result = new CompletableFuture<>();
+
+		Request(Key key) {
+			this.key = key;
+		}
+	}
+
+	/**
+	 * One part of the cache, evicting its least recently used entry
+	 * when full.  Guarded by its own monitor.
+	 */
+	private static final class Stripe extends LinkedHashMap<Key, Outcome> {
+		private static final long serialVersionUID = 1L;
+		private final int capacity;
+
+		Stripe(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Outcome> eldest) {
+			return size() > capacity;
+		}
+	}
+}
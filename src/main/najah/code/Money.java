@@ -0,0 +1,174 @@
+package main.najah.code;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money held as a whole number of minor units (cents).
+ *
+ * Discounts are given in basis points, hundredths of a percent, and
+ * discounted amounts are rounded to the nearest cent with halves rounded
+ * away from zero.  The same rounding is used by PricingEngine, so a
+ * price computed in bulk equals the one computed for a single Money.
+ */
+public final class Money implements Comparable<Money> {
+
+	public static final Money ZERO = new Money(0);
+
+	/** Minor units in one major unit */
+	public static final int MINOR_PER_MAJOR = 100;
+	/** Basis points in 100% */
+	public static final int BASIS_POINTS = 10_000;
+	/** Largest discount Product.applyDiscount accepts, 50% */
+	public static final int MAX_DISCOUNT_BASIS_POINTS = 5_000;
+
+	/** Largest amount whose discounted value is computed in long arithmetic */
+	private static final long FAST_LIMIT = Long.MAX_VALUE / BASIS_POINTS;
+
+	private final long minorUnits;
+
+	private Money(long minorUnits) {
+		this.minorUnits = minorUnits;
+	}
+
+	/**
+	 * Returns the amount of the given number of minor units.
+	 * @param minorUnits
+	 * @return Money
+	 */
+	public static Money ofMinor(long minorUnits) {
+		return minorUnits == 0 ? ZERO : new Money(minorUnits);
+	}
+
+	/**
+	 * Returns the amount written in decimal, such as "12.34".
+	 * @param amount
+	 * @return Money
+	 * @throws IllegalArgumentException if the amount is not a number or
+	 *         has more than two decimals
+	 * @throws ArithmeticException if the amount does not fit in a long
+	 */
+	public static Money parse(String amount) {
+		BigDecimal value;
+		try {
+			value = new BigDecimal(amount);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid amount");
+		}
+		BigDecimal minor = value.movePointRight(2);
+		if (minor.stripTrailingZeros().scale() > 0) {
+			throw new IllegalArgumentException("Invalid amount");
+		}
+		return ofMinor(minor.longValueExact());
+	}
+
+	/**
+	 * Returns the amount closest to a double, rounding halves of a cent
+	 * away from zero.
+	 * @param amount
+	 * @return Money
+	 */
+	public static Money fromDouble(double amount) {
+		if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+			throw new IllegalArgumentException("Invalid amount");
+		}
+		return ofMinor(BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+	}
+
+	/**
+	 * Converts a discount percentage, as given to Product.applyDiscount,
+	 * to basis points.
+	 * @param discountPercentage
+	 * @return int
+	 * @throws IllegalArgumentException if the discount is outside 0 to 50%
+	 */
+	public static int toBasisPoints(double discountPercentage) {
+		if (discountPercentage < 0 || discountPercentage > 50 || Double.isNaN(discountPercentage)) {
+			throw new IllegalArgumentException("Invalid discount");
+		}
+		return (int) Math.round(discountPercentage * 100);
+	}
+
+	/**
+	 * Checks that a discount in basis points is between 0 and 50%.
+	 * @param basisPoints
+	 * @return int   the basis points
+	 */
+	public static int checkDiscount(int basisPoints) {
+		if (basisPoints < 0 || basisPoints > MAX_DISCOUNT_BASIS_POINTS) {
+			throw new IllegalArgumentException("Invalid discount");
+		}
+		return basisPoints;
+	}
+
+	/**
+	 * Returns the minor units left of an amount after a discount, rounded
+	 * to the nearest unit with halves away from zero.  The discount is
+	 * not checked.
+	 */
+	static long discount(long minorUnits, int basisPoints) {
+		if (minorUnits >= 0 && minorUnits <= FAST_LIMIT) {
+			return (minorUnits * (BASIS_POINTS - basisPoints) + BASIS_POINTS / 2) / BASIS_POINTS;
+		}
+		if (minorUnits < 0 && minorUnits >= -FAST_LIMIT) {
+			return -discount(-minorUnits, basisPoints);
+		}
+		return BigDecimal.valueOf(minorUnits).multiply(BigDecimal.valueOf(BASIS_POINTS - basisPoints))
+				.divide(BigDecimal.valueOf(BASIS_POINTS), 0, RoundingMode.HALF_UP).longValueExact();
+	}
+
+	public long getMinorUnits() {
+		return minorUnits;
+	}
+
+	/**
+	 * Returns the amount left after a discount given in basis points.
+	 * @param basisPoints
+	 * @return Money
+	 * @throws IllegalArgumentException if the discount is outside 0 to 50%
+	 */
+	public Money discounted(int basisPoints) {
+		return ofMinor(discount(minorUnits, checkDiscount(basisPoints)));
+	}
+
+	public Money plus(Money other) {
+		return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+	}
+
+	public Money minus(Money other) {
+		return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+	}
+
+	public Money times(long quantity) {
+		return ofMinor(Math.multiplyExact(minorUnits, quantity));
+	}
+
+	public boolean isNegative() {
+		return minorUnits < 0;
+	}
+
+	public BigDecimal toBigDecimal() {
+		return BigDecimal.valueOf(minorUnits, 2);
+	}
+
+	public double toDouble() {
+		return minorUnits / (double) MINOR_PER_MAJOR;
+	}
+
+	@Override
+	public int compareTo(Money other) {
+		return Long.compare(minorUnits, other.minorUnits);
+	}
+
+	public boolean equals(Object obj) {
+		return obj instanceof Money && ((Money) obj).minorUnits == minorUnits;
+	}
+
+	public int hashCode() {
+		return Long.hashCode(minorUnits);
+	}
+
+	public String toString() {
+		return toBigDecimal().toPlainString();
+	}
+}
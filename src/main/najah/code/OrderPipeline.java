@@ -0,0 +1,354 @@
+package main.najah.code;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Processes orders against a RecipeBook and an Inventory in two stages
+ * that run on virtual threads and are joined by bounded queues.
+ *
+ * The resolve stage looks up the ordered recipe and checks the payment
+ * against Recipe.getPrice().  The dispense stage drains up to maxBatch
+ * orders at a time, reserves the ingredients for all orders of the same
+ * recipe with one Inventory.reserve call and, if that fails, falls back
+ * to one reservation per order.  submit() blocks while the first queue
+ * is full, which pushes back on callers that outrun the pipeline.
+ *
+ * Every accepted order's future completes.  An exception thrown while
+ * handling an order completes its future exceptionally and the worker
+ * carries on; orders still queued when the workers have exited complete
+ * exceptionally with an IllegalStateException.
+ */
+public class OrderPipeline implements AutoCloseable {
+
+	private static final Job STOP = new Job(null);
+
+	private final RecipeBook book;
+	private final Inventory inventory;
+	private final int maxBatch;
+	private final Stage resolve;
+	private final Stage dispense;
+	private final long startNanos = System.nanoTime();
+	/** Held shared by submit() and exclusively by close() while it sets closed */
+	private final ReadWriteLock closing = new ReentrantReadWriteLock();
+	private boolean closed;
+
+	/**
+	 * Creates a pipeline with queues of 1024 orders, one worker per core
+	 * in each stage and batches of up to 64 orders.
+	 * @param book
+	 * @param inventory
+	 */
+	public OrderPipeline(RecipeBook book, Inventory inventory) {
+		this(book, inventory, 1024, Runtime.getRuntime().availableProcessors(),
+				Runtime.getRuntime().availableProcessors(), 64);
+	}
+
+	/**
+	 * Creates a pipeline.
+	 * @param book
+	 * @param inventory
+	 * @param queueCapacity     orders each stage queue holds
+	 * @param resolveWorkers    virtual threads resolving recipes
+	 * @param dispenseWorkers   virtual threads reserving ingredients
+	 * @param maxBatch          most orders a dispense worker takes at once
+	 */
+	public OrderPipeline(RecipeBook book, Inventory inventory, int queueCapacity,
+			int resolveWorkers, int dispenseWorkers, int maxBatch) {
+		if (queueCapacity <= 0 || resolveWorkers <= 0 || dispenseWorkers <= 0 || maxBatch <= 0) {
+			throw new IllegalArgumentException("Pipeline sizes must be positive");
+		}
+		this.book = book;
+		this.inventory = inventory;
+		this.maxBatch = maxBatch;
+		resolve = new Stage("resolve", queueCapacity, resolveWorkers);
+		dispense = new Stage("dispense", queueCapacity, dispenseWorkers);
+		resolve.start(this::resolveLoop);
+		dispense.start(this::dispenseLoop);
+	}
+
+	/**
+	 * Queues an order, waiting for room if the pipeline is full.
+	 * @param order
+	 * @return CompletableFuture completed with the result of the order
+	 * @throws InterruptedException
+	 * @throws IllegalStateException if the pipeline is closing or closed
+	 */
+	public CompletableFuture<OrderResult> submit(DrinkOrder order) throws InterruptedException {
+		Job job = new Job(order);
+		closing.readLock().lockInterruptibly();
+		try {
+			//Checked under the lock so no order is queued behind the stop markers
+			if (closed) {
+				throw new IllegalStateException("Pipeline is closed");
+			}
+			resolve.queue.put(job);
+		} finally {
+			closing.readLock().unlock();
+		}
+		return job.result;
+	}
+
+	/**
+	 * Returns the counters of each stage, in pipeline order.
+	 * @return List
+	 */
+	public List<StageStats> getStats() {
+		double seconds = Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+		List<StageStats> stats = new ArrayList<>();
+		for (Stage s : new Stage[] {resolve, dispense}) {
+			long processed = s.processed.sum();
+			stats.add(new StageStats(s.name, processed, s.queue.size(), processed / seconds));
+		}
+		return stats;
+	}
+
+	/**
+	 * Stops accepting orders, lets queued orders finish and waits
+	 * for the workers to exit.  If the calling thread is interrupted
+	 * it stops waiting and keeps its interrupt status.
+	 * @throws IllegalStateException if called from one of the pipeline's
+	 *         workers, such as in a callback on an order's future, which
+	 *         would wait for its own thread to exit
+	 */
+	@Override
+	public void close() {
+		closing.writeLock().lock();
+		try {
+			if (closed) {
+				return;
+			}
+			if (resolve.isWorker(Thread.currentThread()) || dispense.isWorker(Thread.currentThread())) {
+				throw new IllegalStateException("Pipeline cannot be closed from its own workers");
+			}
+			closed = true;
+		} finally {
+			closing.writeLock().unlock();
+		}
+		try {
+			resolve.stop();
+			dispense.stop();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+		resolve.failRemaining();
+		dispense.failRemaining();
+	}
+
+	private void resolveLoop() throws InterruptedException {
+		while (true) {
+			Job job = resolve.queue.take();
+			if (job == STOP) {
+				return;
+			}
+			DrinkOrder order = job.order;
+			resolve.processed.increment();
+			Recipe r;
+			try {
+				r = book.getRecipe(order.getRecipeName());
+			} catch (RuntimeException e) {
+				job.result.completeExceptionally(e);
+				continue;
+			}
+			if (r == null) {
+				job.complete(OrderResult.Status.UNKNOWN_RECIPE, null);
+			} else if (order.getPayment() < r.getPrice()) {
+				job.complete(OrderResult.Status.INSUFFICIENT_PAYMENT, r);
+			} else {
+				job.recipe = r;
+				dispense.queue.put(job);
+			}
+		}
+	}
+
+	private void dispenseLoop() throws InterruptedException {
+		List<Job> batch = new ArrayList<>(maxBatch);
+		Map<Recipe, List<Job>> byRecipe = new IdentityHashMap<>();
+		int stops = 0;
+		while (stops == 0) {
+			batch.add(dispense.queue.take());
+			dispense.queue.drainTo(batch, maxBatch - 1);
+			for (Job job : batch) {
+				if (job == STOP) {
+					stops++;
+				} else {
+					byRecipe.computeIfAbsent(job.recipe, r -> new ArrayList<>()).add(job);
+				}
+			}
+			for (Map.Entry<Recipe, List<Job>> e : byRecipe.entrySet()) {
+				try {
+					dispense(e.getKey(), e.getValue());
+				} catch (RuntimeException ex) {
+					//Orders already completed keep their result
+					e.getValue().forEach(job -> job.result.completeExceptionally(ex));
+				}
+			}
+			dispense.processed.add(batch.size() - stops);
+			batch.clear();
+			byRecipe.clear();
+		}
+		//Hand the stop markers meant for other workers back
+		for (int i = 1; i < stops; i++) {
+			dispense.queue.put(STOP);
+		}
+	}
+
+	private void dispense(Recipe r, List<Job> jobs) {
+		if (inventory.reserve(r, jobs.size())) {
+			for (Job job : jobs) {
+				job.complete(OrderResult.Status.DISPENSED, r);
+			}
+			return;
+		}
+		for (Job job : jobs) {
+			job.complete(inventory.reserve(r) ? OrderResult.Status.DISPENSED
+					: OrderResult.Status.OUT_OF_STOCK, r);
+		}
+	}
+
+	/**
+	 * An order travelling through the pipeline.
+	 */
+	private static class Job {
+		final DrinkOrder order;
+		final CompletableFuture<OrderResult> result = new CompletableFuture<>();
+		Recipe recipe;
+
+		Job(DrinkOrder order) {
+			this.order = order;
+		}
+
+		void complete(OrderResult.Status status, Recipe r) {
+			int change = status == OrderResult.Status.DISPENSED
+					? order.getPayment() - r.getPrice() : order.getPayment();
+			result.complete(new OrderResult(order, status, r, change));
+		}
+	}
+
+	private interface Worker {
+		void run() throws InterruptedException;
+	}
+
+	/**
+	 * The input queue and workers of one stage.
+	 */
+	private static class Stage {
+		final String name;
+		final BlockingQueue<Job> queue;
+		final LongAdder processed = new LongAdder();
+		final Thread[] workers;
+
+		Stage(String name, int queueCapacity, int workers) {
+			this.name = name;
+			this.queue = new ArrayBlockingQueue<>(queueCapacity);
+			this.workers = new Thread[workers];
+		}
+
+		void start(Worker worker) {
+			for (int i = 0; i < workers.length; i++) {
+				workers[i] = Thread.ofVirtual().name("order-" + name + "-" + i).start(() -> {
+					try {
+						worker.run();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				});
+			}
+		}
+
+		boolean isWorker(Thread t) {
+			for (Thread worker : workers) {
+				if (worker == t) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Queues one stop marker per worker behind the remaining orders
+		 * and waits for the workers to exit.
+		 */
+		void stop() throws InterruptedException {
+			for (int i = 0; i < workers.length; i++) {
+				queue.put(STOP);
+			}
+			for (Thread t : workers) {
+				t.join();
+			}
+		}
+
+		/**
+		 * Fails the orders left in the queue once the workers have exited.
+		 */
+		void failRemaining() {
+			List<Job> left = new ArrayList<>();
+			queue.drainTo(left);
+			for (Job job : left) {
+				if (job != STOP) {
+					job.result.completeExceptionally(new IllegalStateException("Pipeline is closed"));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Counters for one stage of the pipeline.
+	 */
+	public static class StageStats {
+
+		private final String name;
+		private final long processed;
+		private final int queueDepth;
+		private final double throughput;
+
+		StageStats(String name, long processed, int queueDepth, double throughput) {
+			this.name = name;
+			this.processed = processed;
+			this.queueDepth = queueDepth;
+			this.throughput = throughput;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Returns the number of orders the stage has handled.
+		 * @return long
+		 */
+		public long getProcessed() {
+			return processed;
+		}
+
+		/**
+		 * Returns the number of orders waiting for the stage.
+		 * @return int
+		 */
+		public int getQueueDepth() {
+			return queueDepth;
+		}
+
+		/**
+		 * Returns the orders handled per second since the pipeline started.
+		 * @return double
+		 */
+		public double getThroughput() {
+			return throughput;
+		}
+
+		public String toString() {
+			return name + ": " + processed + " processed, " + queueDepth + " queued, "
+					+ Math.round(throughput) + "/s";
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package main.najah.code;
+
+/**
+ * The outcome of a DrinkOrder.
+ */
+public class OrderResult {
+
+	/**
+	 * Why an order was or was not dispensed.
+	 */
+	public enum Status {
+		/** The drink was made and change returned */
+		DISPENSED,
+		/** No recipe with the ordered name exists */
+		UNKNOWN_RECIPE,
+		/** The payment is less than the recipe's price */
+		INSUFFICIENT_PAYMENT,
+		/** The inventory does not hold the recipe's ingredients */
+		OUT_OF_STOCK
+	}
+
+	private final DrinkOrder order;
+	private final Status status;
+	private final Recipe recipe;
+	private final int change;
+
+	OrderResult(DrinkOrder order, Status status, Recipe recipe, int change) {
+		this.order = order;
+		this.status = status;
+		this.recipe = recipe;
+		this.change = change;
+	}
+
+	public DrinkOrder getOrder() {
+		return order;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * Returns the recipe the order resolved to and null if
+	 * the recipe is unknown.
+	 * @return Recipe
+	 */
+	public Recipe getRecipe() {
+		return recipe;
+	}
+
+	/**
+	 * Returns the money handed back: the payment minus the price for a
+	 * dispensed drink and the whole payment otherwise.
+	 * @return int
+	 */
+	public int getChange() {
+		return change;
+	}
+
+	public String toString() {
+		return order + ": " + status + ", change " + change;
+	}
+}
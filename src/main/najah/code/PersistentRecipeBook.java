@@ -0,0 +1,368 @@
+package main.najah.code;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * A RecipeBook stored in a memory-mapped file.
+ *
+ * The table file holds a header followed by one fixed-width record per
+ * slot.  Every mutation is first appended to a journal file next to the
+ * table as a checksummed image of the slot it changes and forced to the
+ * storage device, and only then applied to the mapped table, so the
+ * table never holds a change the journal could lose.  checkpoint()
+ * flushes the table and empties the journal, so reopening a book only
+ * replays the entries written since the last checkpoint.  A journal
+ * entry cut short by a crash fails its checksum and is discarded
+ * together with anything after it.
+ */
+public class PersistentRecipeBook implements Closeable {
+
+	/** Longest recipe name in UTF-8 bytes */
+	public static final int MAX_NAME_BYTES = 64;
+
+	private static final int MAGIC = 0x52435042;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 16;
+	/** Name length, name bytes padded to MAX_NAME_BYTES and five amounts */
+	private static final int RECORD_SIZE = 4 + MAX_NAME_BYTES + 5 * 4;
+	/** Slot number, record image and checksum */
+	private static final int ENTRY_SIZE = 4 + RECORD_SIZE + 4;
+
+	private final FileChannel tableChannel;
+	private final FileChannel journalChannel;
+	private final MappedByteBuffer table;
+	private final int capacity;
+	/** Number of occupied slots; slots are filled in order and never emptied */
+	private int size;
+	/** Slot of each recipe keyed by name, built on first use */
+	private Map<String, Integer> nameIndex;
+	private final ByteBuffer entry = ByteBuffer.allocateDirect(ENTRY_SIZE);
+	private final CRC32C crc = new CRC32C();
+
+	/**
+	 * Opens the book stored at the given path, creating it with room
+	 * for the given number of recipes if it does not exist.  An existing
+	 * book keeps the capacity it was created with.
+	 * @param file
+	 * @param capacity
+	 * @throws IOException
+	 */
+	public PersistentRecipeBook(Path file, int capacity) throws IOException {
+		if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive");
+		tableChannel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		journalChannel = FileChannel.open(journalPath(file), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			boolean created = tableChannel.size() == 0;
+			if (!created) {
+				ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+				tableChannel.read(header, 0);
+				header.flip();
+				if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC
+						|| header.getInt() != VERSION) {
+					throw new IOException("Not a recipe book file: " + file);
+				}
+				capacity = header.getInt();
+			}
+			this.capacity = capacity;
+			table = tableChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+					HEADER_SIZE + (long) capacity * RECORD_SIZE);
+			if (created) {
+				table.putInt(0, MAGIC);
+				table.putInt(4, VERSION);
+				table.putInt(8, capacity);
+			}
+			size = table.getInt(12);
+			replayJournal();
+		} catch (IOException | RuntimeException e) {
+			tableChannel.close();
+			journalChannel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the journal file used by the book stored at the given path.
+	 * @param file
+	 * @return Path
+	 */
+	public static Path journalPath(Path file) {
+		return file.resolveSibling(file.getFileName() + ".journal");
+	}
+
+	/**
+	 * Returns the recipes in the book.  Empty slots are null.  The
+	 * returned recipes are copies; changing them does not change the book.
+	 * @return Recipe[]
+	 */
+	public synchronized Recipe[] getRecipes() {
+		Recipe[] recipes = new Recipe[capacity];
+		for (int i = 0; i < size; i++) {
+			recipes[i] = read(i);
+		}
+		return recipes;
+	}
+
+	/**
+	 * Returns a copy of the recipe at the position specified and null
+	 * if the slot is empty.
+	 * @param slot
+	 * @return Recipe
+	 */
+	public synchronized Recipe getRecipe(int slot) {
+		return slot < size ? read(slot) : null;
+	}
+
+	/**
+	 * Returns a copy of the recipe with the given name and null if
+	 * no such recipe exists.
+	 * @param name
+	 * @return Recipe
+	 */
+	public synchronized Recipe getRecipe(String name) {
+		Integer slot = nameIndex().get(name);
+		return slot == null ? null : read(slot);
+	}
+
+	/**
+	 * Returns the number of occupied slots.
+	 * @return int
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of slots, occupied or not.
+	 * @return int
+	 */
+	public int capacity() {
+		return capacity;
+	}
+
+	public synchronized boolean addRecipe(Recipe r) {
+		if (nameIndex().containsKey(r.getName()) || size == capacity) {
+			return false;
+		}
+		int slot = size;
+		write(slot, r);
+		nameIndex.put(r.getName(), slot);
+		return true;
+	}
+
+	/**
+	 * Returns the name of the recipe deleted at the position specified
+	 * and null if the recipe does not exist.
+	 * @param recipeToDelete
+	 * @return String
+	 */
+	public synchronized String deleteRecipe(int recipeToDelete) {
+		checkSlot(recipeToDelete);
+		if (recipeToDelete < size) {
+			String recipeName = readName(recipeToDelete);
+			replace(recipeToDelete, recipeName, new Recipe());
+			return recipeName;
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the name of the recipe edited at the position specified
+	 * and null if the recipe does not exist.
+	 * @param recipeToEdit
+	 * @param newRecipe
+	 * @return String
+	 */
+	public synchronized String editRecipe(int recipeToEdit, Recipe newRecipe) {
+		checkSlot(recipeToEdit);
+		if (recipeToEdit < size) {
+			String recipeName = readName(recipeToEdit);
+			newRecipe.setName("");
+			replace(recipeToEdit, recipeName, newRecipe);
+			return recipeName;
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Forces journal entries written so far to the storage device.
+	 * Every mutation already does this before it returns.
+	 */
+	public synchronized void sync() {
+		try {
+			journalChannel.force(false);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Flushes the mapped table to the storage device and empties the
+	 * journal.  A crash between the two steps only causes entries that
+	 * are already in the table to be replayed again.
+	 */
+	public synchronized void checkpoint() {
+		try {
+			table.force();
+			journalChannel.truncate(0);
+			journalChannel.force(true);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Checkpoints the book and closes its files.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (!tableChannel.isOpen()) {
+			return;
+		}
+		try {
+			checkpoint();
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} finally {
+			journalChannel.close();
+			tableChannel.close();
+		}
+	}
+
+	private void replace(int slot, String oldName, Recipe r) {
+		Map<String, Integer> index = nameIndex();
+		write(slot, r);
+		if (!oldName.equals(r.getName())) {
+			index.remove(oldName);
+		}
+		index.putIfAbsent(r.getName(), slot);
+	}
+
+	private void checkSlot(int slot) {
+		if (slot < 0 || slot >= capacity) {
+			throw new ArrayIndexOutOfBoundsException(slot);
+		}
+	}
+
+	private Map<String, Integer> nameIndex() {
+		if (nameIndex == null) {
+			Map<String, Integer> index = new HashMap<>();
+			for (int i = 0; i < size; i++) {
+				index.putIfAbsent(readName(i), i);
+			}
+			nameIndex = index;
+		}
+		return nameIndex;
+	}
+
+	/**
+	 * Journals the new image of a slot and then applies it to the table.
+	 */
+	private void write(int slot, Recipe r) {
+		byte[] name = r.getName().getBytes(StandardCharsets.UTF_8);
+		if (name.length > MAX_NAME_BYTES) {
+			throw new IllegalArgumentException("Recipe name is too long");
+		}
+		entry.clear();
+		entry.putInt(slot);
+		entry.putInt(name.length);
+		entry.put(name);
+		while (entry.position() < 4 + 4 + MAX_NAME_BYTES) {
+			entry.put((byte) 0);
+		}
+		entry.putInt(r.getPrice());
+		entry.putInt(r.getAmtCoffee());
+		entry.putInt(r.getAmtMilk());
+		entry.putInt(r.getAmtSugar());
+		entry.putInt(r.getAmtChocolate());
+		entry.putInt(checksum(entry));
+		entry.flip();
+		try {
+			long position = journalChannel.size();
+			while (entry.hasRemaining()) {
+				position += journalChannel.write(entry, position);
+			}
+			//The mapped page may reach the disk at any time once it is changed
+			journalChannel.force(false);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		apply(entry);
+	}
+
+	/**
+	 * Copies a journal entry into its slot of the mapped table.
+	 */
+	private void apply(ByteBuffer e) {
+		int slot = e.getInt(0);
+		table.put(offset(slot), e, 4, RECORD_SIZE);
+		if (slot >= size) {
+			size = slot + 1;
+			table.putInt(12, size);
+		}
+	}
+
+	/**
+	 * Applies the journal entries written since the last checkpoint and
+	 * cuts the journal at the first entry that is incomplete or fails
+	 * its checksum.
+	 */
+	private void replayJournal() throws IOException {
+		long length = journalChannel.size();
+		long position = 0;
+		while (position + ENTRY_SIZE <= length) {
+			entry.clear();
+			while (entry.hasRemaining()) {
+				if (journalChannel.read(entry, position + entry.position()) < 0) break;
+			}
+			int slot = entry.getInt(0);
+			if (entry.hasRemaining() || entry.getInt(ENTRY_SIZE - 4) != checksum(entry)
+					|| slot < 0 || slot >= capacity) {
+				break;
+			}
+			apply(entry);
+			position += ENTRY_SIZE;
+		}
+		if (position < length) {
+			journalChannel.truncate(position);
+		}
+	}
+
+	private int checksum(ByteBuffer e) {
+		crc.reset();
+		crc.update(e.slice(0, ENTRY_SIZE - 4));
+		return (int) crc.getValue();
+	}
+
+	private static int offset(int slot) {
+		return HEADER_SIZE + slot * RECORD_SIZE;
+	}
+
+	private String readName(int slot) {
+		int base = offset(slot);
+		int length = table.getInt(base);
+		byte[] name = new byte[length];
+		table.get(base + 4, name);
+		return new String(name, StandardCharsets.UTF_8);
+	}
+
+	private Recipe read(int slot) {
+		int amounts = offset(slot) + 4 + MAX_NAME_BYTES;
+		return new Recipe(readName(slot), table.getInt(amounts), table.getInt(amounts + 4),
+				table.getInt(amounts + 8), table.getInt(amounts + 12), table.getInt(amounts + 16));
+	}
+}
@@ -0,0 +1,178 @@
+package main.najah.code;
+
+import java.util.Arrays;
+
+/**
+ * An int divisor prepared for dividing many dividends.
+ *
+ * Division by a divisor known in advance is replaced by a multiplication
+ * with a precomputed magic number and a shift, following Hacker's
+ * Delight, chapter 10.  Results are identical to Java's truncating /,
+ * including Integer.MIN_VALUE / -1.  A zero divisor is rejected once,
+ * when it is prepared, with the exception Calculator.divide throws.
+ */
+public final class PreparedDivisor {
+
+	private static final int GENERAL = 0;
+	private static final int ONE = 1;
+	private static final int MINUS_ONE = 2;
+	private static final int MIN_VALUE = 3;
+
+	private final int divisor;
+	private final int kind;
+	private final int magic;
+	private final int shift;
+	/** Dividend multiple to add after the high multiply: 1, -1 or 0 */
+	private final int correction;
+
+	private PreparedDivisor(int divisor) {
+		this.divisor = divisor;
+		if (divisor == 1) {
+			kind = ONE;
+		} else if (divisor == -1) {
+			kind = MINUS_ONE;
+		} else if (divisor == Integer.MIN_VALUE) {
+			kind = MIN_VALUE;
+		} else {
+			kind = GENERAL;
+		}
+		if (kind != GENERAL) {
+			magic = 0;
+			shift = 0;
+			correction = 0;
+			return;
+		}
+		//Hacker's Delight, figure 10-1, with unsigned ints held in longs
+		final long two31 = 0x80000000L;
+		long ad = Math.abs((long) divisor);
+		long t = two31 + (divisor >>> 31);
+		long anc = t - 1 - t % ad;
+		int p = 31;
+		long q1 = two31 / anc;
+		long r1 = two31 - q1 * anc;
+		long q2 = two31 / ad;
+		long r2 = two31 - q2 * ad;
+		long delta;
+		do {
+			p++;
+			q1 = 2 * q1;
+			r1 = 2 * r1;
+			if (r1 >= anc) {
+				q1++;
+				r1 -= anc;
+			}
+			q2 = 2 * q2;
+			r2 = 2 * r2;
+			if (r2 >= ad) {
+				q2++;
+				r2 -= ad;
+			}
+			delta = ad - r2;
+		} while (q1 < delta || (q1 == delta && r1 == 0));
+		int m = (int) (q2 + 1);
+		magic = divisor < 0 ? -m : m;
+		shift = p - 32;
+		correction = divisor > 0 && magic < 0 ? 1 : divisor < 0 && magic > 0 ? -1 : 0;
+	}
+
+	/**
+	 * Prepares a divisor.
+	 * @param divisor
+	 * @return PreparedDivisor
+	 * @throws ArithmeticException if the divisor is zero
+	 */
+	public static PreparedDivisor of(int divisor) {
+		if (divisor == 0) {
+			throw new ArithmeticException("Cannot divide by zero");
+		}
+		return new PreparedDivisor(divisor);
+	}
+
+	/**
+	 * Returns the divisor.
+	 * @return int
+	 */
+	public int getDivisor() {
+		return divisor;
+	}
+
+	/**
+	 * Returns dividend / divisor.
+	 * @param dividend
+	 * @return int
+	 */
+	public int divide(int dividend) {
+		switch (kind) {
+		case ONE:
+			return dividend;
+		case MINUS_ONE:
+			return -dividend;
+		case MIN_VALUE:
+			return dividend == Integer.MIN_VALUE ? 1 : 0;
+		default:
+			return quotient(dividend);
+		}
+	}
+
+	/**
+	 * Returns a new array holding every dividend divided by the divisor.
+	 * @param dividends
+	 * @return int[]
+	 */
+	public int[] divide(int[] dividends) {
+		int[] quotients = new int[dividends.length];
+		divide(dividends, 0, quotients, 0, dividends.length);
+		return quotients;
+	}
+
+	/**
+	 * Divides length dividends starting at srcPos and stores the
+	 * quotients starting at destPos.  The ranges may overlap.
+	 * @param src
+	 * @param srcPos
+	 * @param dest
+	 * @param destPos
+	 * @param length
+	 */
+	public void divide(int[] src, int srcPos, int[] dest, int destPos, int length) {
+		if (length < 0 || srcPos < 0 || destPos < 0
+				|| srcPos > src.length - length || destPos > dest.length - length) {
+			throw new IndexOutOfBoundsException("Range out of bounds");
+		}
+		if (src == dest && srcPos < destPos && destPos < srcPos + length) {
+			//A forward pass would read quotients it has already written
+			src = Arrays.copyOfRange(src, srcPos, srcPos + length);
+			srcPos = 0;
+		}
+		//One loop per kind keeps the branch on the kind out of the loop
+		switch (kind) {
+		case ONE:
+			System.arraycopy(src, srcPos, dest, destPos, length);
+			break;
+		case MINUS_ONE:
+			for (int i = 0; i < length; i++) {
+				dest[destPos + i] = -src[srcPos + i];
+			}
+			break;
+		case MIN_VALUE:
+			for (int i = 0; i < length; i++) {
+				dest[destPos + i] = src[srcPos + i] == Integer.MIN_VALUE ? 1 : 0;
+			}
+			break;
+		default:
+			for (int i = 0; i < length; i++) {
+				dest[destPos + i] = quotient(src[srcPos + i]);
+			}
+		}
+	}
+
+	private int quotient(int n) {
+		int q = (int) (((long) magic * n) >> 32) + correction * n;
+		q >>= shift;
+		return q + (q >>> 31);
+	}
+
+	public String toString() {
+		return "/" + divisor;
+	}
+}
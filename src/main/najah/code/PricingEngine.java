@@ -0,0 +1,110 @@
+package main.najah.code;
+
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Computes final prices for whole catalogs held in primitive columns.
+ *
+ * Prices are minor units in a long[] and discounts are basis points in
+ * a short[], one entry per product.  Each final price is rounded as
+ * Money.discounted rounds it.  Columns of at least the parallel
+ * threshold are split into blocks priced in parallel.
+ */
+public class PricingEngine {
+
+	private static final int BLOCK_SIZE = 8_192;
+
+	private final int parallelThreshold;
+
+	/**
+	 * Creates an engine that goes parallel from 65536 products on.
+	 */
+	public PricingEngine() {
+		this(1 << 16);
+	}
+
+	/**
+	 * Creates an engine.
+	 * @param parallelThreshold   fewest products priced in parallel
+	 */
+	public PricingEngine(int parallelThreshold) {
+		if (parallelThreshold <= 0) {
+			throw new IllegalArgumentException("Parallel threshold must be positive");
+		}
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	/**
+	 * Returns a new column with the final price of every product.
+	 * @param prices      minor units
+	 * @param discounts   basis points, 0 to 5000
+	 * @return long[]
+	 */
+	public long[] finalPrices(long[] prices, short[] discounts) {
+		long[] out = new long[prices.length];
+		finalPrices(prices, discounts, out);
+		return out;
+	}
+
+	/**
+	 * Writes the final price of every product to out.  The whole input
+	 * is checked before anything is written.
+	 * @param prices      minor units
+	 * @param discounts   basis points, 0 to 5000
+	 * @param out
+	 * @throws IllegalArgumentException if a price is negative or a
+	 *         discount is outside 0 to 50%
+	 */
+	public void finalPrices(long[] prices, short[] discounts, long[] out) {
+		if (discounts.length != prices.length || out.length != prices.length) {
+			throw new IllegalArgumentException("Columns must have the same length");
+		}
+		int blocks = (prices.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		run(blocks, prices.length, block -> check(prices, discounts, from(block), to(block, prices.length)));
+		run(blocks, prices.length, block -> price(prices, discounts, out, from(block), to(block, prices.length)));
+	}
+
+	/**
+	 * Returns the sum of the final prices.
+	 * @param prices      minor units
+	 * @param discounts   basis points, 0 to 5000
+	 * @return long
+	 * @throws ArithmeticException if the total does not fit in a long
+	 */
+	public long totalFinalPrice(long[] prices, short[] discounts) {
+		long[] out = finalPrices(prices, discounts);
+		return new Calculator(parallelThreshold).sumExact(out);
+	}
+
+	private void run(int blocks, int size, IntConsumer task) {
+		IntStream stream = IntStream.range(0, blocks);
+		if (size >= parallelThreshold) {
+			stream = stream.parallel();
+		}
+		stream.forEach(task);
+	}
+
+	private static int from(int block) {
+		return block * BLOCK_SIZE;
+	}
+
+	private static int to(int block, int size) {
+		return Math.min(size, (block + 1) * BLOCK_SIZE);
+	}
+
+	private static void check(long[] prices, short[] discounts, int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (prices[i] < 0) {
+				throw new IllegalArgumentException("Price must be non-negative");
+			}
+			Money.checkDiscount(discounts[i]);
+		}
+	}
+
+	private static void price(long[] prices, short[] discounts, long[] out, int from, int to) {
+		for (int i = from; i < to; i++) {
+			out[i] = Money.discount(prices[i], discounts[i]);
+		}
+	}
+}
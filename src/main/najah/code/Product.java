@@ -12,16 +12,25 @@ public class Product {
     }
 
     public void applyDiscount(double discountPercentage) {
+        checkDiscount(discountPercentage);
+        this.discount = discountPercentage;
+    }
+
+    static void checkDiscount(double discountPercentage) {
         if (discountPercentage < 0 || discountPercentage > 50) {
             throw new IllegalArgumentException("Invalid discount");
         }
-        this.discount = discountPercentage;
     }
 
     public double getFinalPrice() {
         return price * (1 - discount / 100);
     }
 
+    // The price and discount as exact amounts: cents rounded half up and basis points
+    public Money getPriceMoney() { return Money.fromDouble(price); }
+    public int getDiscountBasisPoints() { return Money.toBasisPoints(discount); }
+    public Money getFinalPriceMoney() { return getPriceMoney().discounted(getDiscountBasisPoints()); }
+
     public String getName() { return name; }
     public double getPrice() { return price; }
     public double getDiscount() { return discount; }
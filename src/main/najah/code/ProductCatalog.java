@@ -0,0 +1,280 @@
+package main.najah.code;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A concurrent catalog of products indexed by name and by final price.
+ *
+ * Products in the catalog are never modified.  A discount is applied to
+ * a copy of the product, and the copy replaces the original in both
+ * indexes while the name is locked, so a reader always sees a product
+ * whose price, discount and final price belong together.  Products are
+ * copied on the way in and on the way out, so changing a product that
+ * was added or returned leaves the catalog and its indexes untouched;
+ * discounts take effect only through the catalog's applyDiscount.
+ *
+ * Bulk discounts run on the common pool through ConcurrentHashMap's
+ * parallel bulk operations.  Lookups by name never wait.  Final price
+ * queries are weakly consistent: during a bulk discount they may see
+ * some products before and others after their change.
+ */
+public class ProductCatalog {
+
+	/** Fewest products handled in parallel by bulk operations */
+	private static final long PARALLEL_THRESHOLD = 4_096;
+
+	private final ConcurrentHashMap<String, Product> byName = new ConcurrentHashMap<>();
+	private final ConcurrentSkipListMap<PriceKey, Product> byFinalPrice = new ConcurrentSkipListMap<>();
+
+	/**
+	 * Adds a copy of the product unless a product with the same name
+	 * is already in the catalog.
+	 * @param p
+	 * @return boolean
+	 */
+	public boolean add(Product p) {
+		Product copy;
+		if (p instanceof ConcurrentProduct) {
+			//Price and discount from one snapshot, not two reads that may straddle an update
+			ConcurrentProduct.Snapshot s = ((ConcurrentProduct) p).snapshot();
+			copy = new Product(p.getName(), s.getPrice());
+			copy.applyDiscount(s.getDiscount());
+		} else {
+			copy = copy(p, p.getDiscount());
+		}
+		boolean[] added = new boolean[1];
+		byName.computeIfAbsent(p.getName(), name -> {
+			byFinalPrice.put(new PriceKey(copy), copy);
+			added[0] = true;
+			return copy;
+		});
+		return added[0];
+	}
+
+	/**
+	 * Returns a copy of the product with the given name and null if
+	 * there is none.
+	 * @param name
+	 * @return Product
+	 */
+	public Product get(String name) {
+		Product p = byName.get(name);
+		return p == null ? null : copy(p, p.getDiscount());
+	}
+
+	/**
+	 * Removes the product with the given name.
+	 * @param name
+	 * @return Product   a copy of the removed product, or null
+	 */
+	public Product remove(String name) {
+		Product[] removed = new Product[1];
+		byName.computeIfPresent(name, (n, current) -> {
+			byFinalPrice.remove(new PriceKey(current), current);
+			removed[0] = current;
+			return null;
+		});
+		return removed[0] == null ? null : copy(removed[0], removed[0].getDiscount());
+	}
+
+	/**
+	 * Returns the number of products.
+	 * @return int
+	 */
+	public int size() {
+		return byName.size();
+	}
+
+	/**
+	 * Returns copies of the products whose final price is between min
+	 * and max, both included, cheapest first.  Each product appears
+	 * once, even while a discount moves it within the range.
+	 * @param min
+	 * @param max
+	 * @return List
+	 */
+	public List<Product> findByFinalPrice(double min, double max) {
+		List<Product> found = new ArrayList<>();
+		//A discount indexes the new product before dropping the old one
+		Set<String> seen = new HashSet<>();
+		for (Product p : inFinalPriceRange(min, max)) {
+			if (seen.add(p.getName())) {
+				found.add(copy(p, p.getDiscount()));
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Returns the stored products whose final price is between min and
+	 * max, both included.
+	 */
+	private Collection<Product> inFinalPriceRange(double min, double max) {
+		if (min > max) {
+			return List.of();
+		}
+		return byFinalPrice.subMap(PriceKey.lowest(min), true, PriceKey.highest(max), true).values();
+	}
+
+	/**
+	 * Sets the discount of one product.
+	 * @param name
+	 * @param discountPercentage
+	 * @return boolean   false if there is no such product
+	 * @throws IllegalArgumentException if the discount is outside 0 to 50%
+	 */
+	public boolean applyDiscount(String name, double discountPercentage) {
+		Product.checkDiscount(discountPercentage);
+		return byName.computeIfPresent(name, (n, current) -> replace(current, discountPercentage)) != null;
+	}
+
+	/**
+	 * Sets the same discount on every product the filter accepts.
+	 * @param filter
+	 * @param discountPercentage
+	 * @return DiscountReport
+	 */
+	public DiscountReport applyDiscount(Predicate<Product> filter, double discountPercentage) {
+		return applyDiscount(filter, p -> discountPercentage);
+	}
+
+	/**
+	 * Sets a discount computed per product on every product the filter
+	 * accepts.  Each product is checked as Product.applyDiscount checks
+	 * it; products whose discount is refused keep their old discount and
+	 * are reported.  The filter and discount function run while the
+	 * product's name is locked, are given the stored product and must
+	 * neither change it nor use the catalog.
+	 * @param filter
+	 * @param discount   the new discount percentage of a product
+	 * @return DiscountReport
+	 */
+	public DiscountReport applyDiscount(Predicate<Product> filter, ToDoubleFunction<Product> discount) {
+		LongAdder discounted = new LongAdder();
+		Queue<DiscountReport.Rejection> rejections = new ConcurrentLinkedQueue<>();
+		byName.forEachKey(PARALLEL_THRESHOLD, name -> update(name, filter, discount, discounted, rejections));
+		return report(discounted, rejections);
+	}
+
+	/**
+	 * Sets the same discount on every product whose final price is
+	 * between min and max, both included, when the call starts.
+	 * @param min
+	 * @param max
+	 * @param discountPercentage
+	 * @return DiscountReport
+	 */
+	public DiscountReport applyDiscountByFinalPrice(double min, double max, double discountPercentage) {
+		LongAdder discounted = new LongAdder();
+		Queue<DiscountReport.Rejection> rejections = new ConcurrentLinkedQueue<>();
+		ConcurrentHashMap<String, Product> names = new ConcurrentHashMap<>();
+		for (Product p : inFinalPriceRange(min, max)) {
+			names.put(p.getName(), p);
+		}
+		//Only products not changed since they were selected are discounted
+		names.forEach(PARALLEL_THRESHOLD, (name, seen) -> update(name, p -> p == seen,
+				p -> discountPercentage, discounted, rejections));
+		return report(discounted, rejections);
+	}
+
+	private void update(String name, Predicate<Product> filter, ToDoubleFunction<Product> discount,
+			LongAdder discounted, Queue<DiscountReport.Rejection> rejections) {
+		byName.computeIfPresent(name, (n, current) -> {
+			if (!filter.test(current)) {
+				return current;
+			}
+			double d = discount.applyAsDouble(current);
+			try {
+				Product replacement = replace(current, d);
+				discounted.increment();
+				return replacement;
+			} catch (IllegalArgumentException e) {
+				rejections.add(new DiscountReport.Rejection(n, d, e.getMessage()));
+				return current;
+			}
+		});
+	}
+
+	/**
+	 * Swaps a product for a copy with a new discount in the price index.
+	 * Must be called while the product's name is locked.
+	 */
+	private Product replace(Product current, double discountPercentage) {
+		Product replacement = copy(current, discountPercentage);
+		byFinalPrice.put(new PriceKey(replacement), replacement);
+		byFinalPrice.remove(new PriceKey(current), current);
+		return replacement;
+	}
+
+	private static Product copy(Product p, double discountPercentage) {
+		Product copy = new Product(p.getName(), p.getPrice());
+		copy.applyDiscount(discountPercentage);
+		return copy;
+	}
+
+	private static DiscountReport report(LongAdder discounted, Queue<DiscountReport.Rejection> rejections) {
+		List<DiscountReport.Rejection> sorted = new ArrayList<>(rejections);
+		sorted.sort(Comparator.comparing(DiscountReport.Rejection::getName));
+		return new DiscountReport(discounted.sum(), sorted);
+	}
+
+	/**
+	 * Orders products by final price, then by name.
+	 */
+	private static final class PriceKey implements Comparable<PriceKey> {
+		final double finalPrice;
+		/** Null sorts before and after every name in range bounds */
+		final String name;
+		final int bound;
+
+		PriceKey(Product p) {
+			this(p.getFinalPrice(), p.getName(), 0);
+		}
+
+		private PriceKey(double finalPrice, String name, int bound) {
+			this.finalPrice = finalPrice;
+			this.name = name;
+			this.bound = bound;
+		}
+
+		static PriceKey lowest(double finalPrice) {
+			return new PriceKey(finalPrice, null, -1);
+		}
+
+		static PriceKey highest(double finalPrice) {
+			return new PriceKey(finalPrice, null, 1);
+		}
+
+		@Override
+		public int compareTo(PriceKey other) {
+			int c = Double.compare(finalPrice, other.finalPrice);
+			if (c != 0) {
+				return c;
+			}
+			if (name == null || other.name == null) {
+				return Integer.compare(bound, other.bound);
+			}
+			return name.compareTo(other.name);
+		}
+
+		public boolean equals(Object obj) {
+			return obj instanceof PriceKey && compareTo((PriceKey) obj) == 0;
+		}
+
+		public int hashCode() {
+			return Double.hashCode(finalPrice) * 31 + (name == null ? bound : name.hashCode());
+		}
+	}
+}
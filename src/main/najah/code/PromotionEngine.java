@@ -0,0 +1,183 @@
+package main.najah.code;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Works out the discount promotions give a purchase.
+ *
+ * The rules are compiled once into a table per category.  The table cuts
+ * time at every rule's start and end, and within each slice lists the
+ * discount reached at each minimum quantity.  A lookup is a hash lookup
+ * of the category followed by two binary searches, and allocates nothing.
+ *
+ * Results are clamped to the 0 to 50 percent that Product accepts.  The
+ * rules can be replaced at any time: the new set is compiled first and
+ * then published in one write, so each lookup sees either the old rules
+ * or the new ones, never a mix.
+ */
+public class PromotionEngine {
+
+	/** The largest discount Product accepts */
+	public static final double MAX_DISCOUNT = 50;
+
+	private volatile RuleSet rules = new RuleSet(List.of());
+
+	public PromotionEngine() {
+	}
+
+	public PromotionEngine(Collection<PromotionRule> rules) {
+		this.rules = new RuleSet(new ArrayList<>(rules));
+	}
+
+	/**
+	 * Compiles and installs a new rule set in place of the current one.
+	 * @param rules
+	 */
+	public void setRules(Collection<PromotionRule> rules) {
+		this.rules = new RuleSet(new ArrayList<>(rules));
+	}
+
+	/**
+	 * Returns the rules in use.
+	 * @return List
+	 */
+	public List<PromotionRule> getRules() {
+		return rules.rules;
+	}
+
+	/**
+	 * Returns the discount percentage for a purchase, from 0 to 50.
+	 * @param category
+	 * @param quantity
+	 * @param timeMillis   epoch milliseconds
+	 * @return double
+	 */
+	public double discountFor(String category, int quantity, long timeMillis) {
+		CategoryTable table = rules.byCategory.get(category);
+		return table == null ? 0 : table.discountFor(quantity, timeMillis);
+	}
+
+	/**
+	 * Sets a product's discount to the one its purchase earns.
+	 * @param p
+	 * @param category
+	 * @param quantity
+	 * @param timeMillis   epoch milliseconds
+	 * @return double      the discount applied
+	 */
+	public double apply(Product p, String category, int quantity, long timeMillis) {
+		double discount = discountFor(category, quantity, timeMillis);
+		p.applyDiscount(discount);
+		return discount;
+	}
+
+	/**
+	 * A compiled rule set.  Never changed once built.
+	 */
+	private static final class RuleSet {
+		final List<PromotionRule> rules;
+		final Map<String, CategoryTable> byCategory = new HashMap<>();
+
+		RuleSet(List<PromotionRule> rules) {
+			this.rules = Collections.unmodifiableList(rules);
+			Map<String, List<PromotionRule>> grouped = new HashMap<>();
+			for (PromotionRule r : rules) {
+				grouped.computeIfAbsent(r.getCategory(), c -> new ArrayList<>()).add(r);
+			}
+			grouped.forEach((category, list) -> byCategory.put(category, new CategoryTable(list)));
+		}
+	}
+
+	/**
+	 * The rules of one category as an interval table.
+	 *
+	 * Slice i covers times from bounds[i] up to bounds[i + 1].  Its
+	 * quantity tiers are minQuantities and discounts from offsets[i] up
+	 * to offsets[i + 1], with minQuantities ascending.
+	 */
+	private static final class CategoryTable {
+		final long[] bounds;
+		final int[] offsets;
+		final int[] minQuantities;
+		final double[] discounts;
+
+		CategoryTable(List<PromotionRule> rules) {
+			TreeSet<Long> cuts = new TreeSet<>();
+			for (PromotionRule r : rules) {
+				cuts.add(r.getFromMillis());
+				cuts.add(r.getUntilMillis());
+			}
+			bounds = cuts.stream().mapToLong(Long::longValue).toArray();
+			offsets = new int[bounds.length];
+			List<int[]> tierQuantities = new ArrayList<>();
+			List<double[]> tierDiscounts = new ArrayList<>();
+			int tiers = 0;
+			for (int i = 0; i + 1 < bounds.length; i++) {
+				offsets[i] = tiers;
+				List<PromotionRule> active = new ArrayList<>();
+				for (PromotionRule r : rules) {
+					if (r.getFromMillis() <= bounds[i] && r.getUntilMillis() > bounds[i]) {
+						active.add(r);
+					}
+				}
+				int[] quantities = active.stream().mapToInt(PromotionRule::getMinQuantity).distinct().sorted().toArray();
+				double[] discounts = new double[quantities.length];
+				for (int j = 0; j < quantities.length; j++) {
+					discounts[j] = combine(active, quantities[j]);
+				}
+				tierQuantities.add(quantities);
+				tierDiscounts.add(discounts);
+				tiers += quantities.length;
+			}
+			offsets[bounds.length - 1] = tiers;
+			minQuantities = new int[tiers];
+			discounts = new double[tiers];
+			for (int i = 0; i < tierQuantities.size(); i++) {
+				int[] quantities = tierQuantities.get(i);
+				System.arraycopy(quantities, 0, minQuantities, offsets[i], quantities.length);
+				System.arraycopy(tierDiscounts.get(i), 0, discounts, offsets[i], quantities.length);
+			}
+		}
+
+		/**
+		 * Returns the discount of the rules reached at a quantity: the
+		 * larger of the best standalone rule and the stackable ones added up.
+		 */
+		private static double combine(List<PromotionRule> active, int quantity) {
+			double best = 0;
+			double stacked = 0;
+			for (PromotionRule r : active) {
+				if (r.getMinQuantity() <= quantity) {
+					if (r.isStackable()) {
+						stacked += r.getPercent();
+					} else {
+						best = Math.max(best, r.getPercent());
+					}
+				}
+			}
+			return Math.min(MAX_DISCOUNT, Math.max(0, Math.max(best, stacked)));
+		}
+
+		double discountFor(int quantity, long timeMillis) {
+			int slice = floor(Arrays.binarySearch(bounds, timeMillis));
+			if (slice < 0 || slice >= bounds.length - 1) {
+				return 0;
+			}
+			int from = offsets[slice];
+			int tier = floor(Arrays.binarySearch(minQuantities, from, offsets[slice + 1], quantity));
+			return tier < from ? 0 : discounts[tier];
+		}
+
+		/** Turns a binary search result into the index of the last element not above the key */
+		private static int floor(int found) {
+			return found >= 0 ? found : -found - 2;
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package main.najah.code;
+
+/**
+ * One promotion: a percentage off products of a category, bought in at
+ * least a given quantity during a time window.
+ *
+ * Stackable rules add up with each other.  A rule that is not stackable
+ * stands alone: the discount is the larger of the best such rule and the
+ * sum of the stackable ones.  Percentages above 50 are allowed here, but
+ * PromotionEngine never returns more than Product accepts.
+ */
+public final class PromotionRule {
+
+	/** Start of a window open since forever */
+	public static final long ALWAYS_FROM = Long.MIN_VALUE;
+	/** End of a window that never closes */
+	public static final long ALWAYS_UNTIL = Long.MAX_VALUE;
+
+	private final String category;
+	private final int minQuantity;
+	private final long fromMillis;
+	private final long untilMillis;
+	private final double percent;
+	private final boolean stackable;
+
+	/**
+	 * Creates a rule.
+	 * @param category      the category it applies to
+	 * @param minQuantity   fewest items bought for it to apply, at least 1
+	 * @param fromMillis    start of the window in epoch milliseconds, inclusive
+	 * @param untilMillis   end of the window in epoch milliseconds, exclusive
+	 * @param percent       discount percentage, 0 to 100
+	 * @param stackable     whether it adds to other stackable rules
+	 */
+	public PromotionRule(String category, int minQuantity, long fromMillis, long untilMillis, double percent,
+			boolean stackable) {
+		if (category == null) {
+			throw new IllegalArgumentException("Category is required");
+		}
+		if (minQuantity < 1) {
+			throw new IllegalArgumentException("Minimum quantity must be positive");
+		}
+		if (fromMillis >= untilMillis) {
+			throw new IllegalArgumentException("Empty time window");
+		}
+		if (!(percent >= 0 && percent <= 100)) {
+			throw new IllegalArgumentException("Invalid discount");
+		}
+		this.category = category;
+		this.minQuantity = minQuantity;
+		this.fromMillis = fromMillis;
+		this.untilMillis = untilMillis;
+		this.percent = percent;
+		this.stackable = stackable;
+	}
+
+	/**
+	 * Creates a rule with no time limit.
+	 * @param category
+	 * @param minQuantity
+	 * @param percent
+	 * @param stackable
+	 * @return PromotionRule
+	 */
+	public static PromotionRule always(String category, int minQuantity, double percent, boolean stackable) {
+		return new PromotionRule(category, minQuantity, ALWAYS_FROM, ALWAYS_UNTIL, percent, stackable);
+	}
+
+	/**
+	 * Returns whether the rule applies to a purchase.
+	 * @param category
+	 * @param quantity
+	 * @param timeMillis
+	 * @return boolean
+	 */
+	public boolean appliesTo(String category, int quantity, long timeMillis) {
+		return this.category.equals(category) && quantity >= minQuantity && timeMillis >= fromMillis
+				&& timeMillis < untilMillis;
+	}
+
+	public String getCategory() { return category; }
+	public int getMinQuantity() { return minQuantity; }
+	public long getFromMillis() { return fromMillis; }
+	public long getUntilMillis() { return untilMillis; }
+	public double getPercent() { return percent; }
+	public boolean isStackable() { return stackable; }
+
+	public String toString() {
+		return category + " x" + minQuantity + " [" + fromMillis + ", " + untilMillis + "): " + percent + "%"
+				+ (stackable ? " stackable" : "");
+	}
+}
@@ -1,11 +1,15 @@
 package main.najah.code;
 
+import java.nio.charset.StandardCharsets;
 
 
 /**
  * @author Eng
  */
 public class Recipe {
+    /** Returned by parseUnits for text that is not a non-negative integer */
+    public static final int INVALID_UNITS = -1;
+    
     private String name;
     private int price;
     private int amtCoffee;
@@ -25,6 +29,18 @@ public class Recipe {
     	this.amtChocolate = 0;
     }
     
+    /**
+     * Creates a recipe from values that have already been validated.
+     */
+    Recipe(String name, int price, int amtCoffee, int amtMilk, int amtSugar, int amtChocolate) {
+    	this.name = name;
+    	this.price = price;
+    	this.amtCoffee = amtCoffee;
+    	this.amtMilk = amtMilk;
+    	this.amtSugar = amtSugar;
+    	this.amtChocolate = amtChocolate;
+    }
+    
     /**
 	 * @return   Returns the amtChocolate.
 	 */
@@ -35,17 +51,26 @@ public class Recipe {
 	 * @param amtChocolate   The amtChocolate to set.
 	 */
     public void setAmtChocolate(String chocolate) throws RecipeException {
-    	int amtChocolate = 0;
-    	try {
-    		amtChocolate = Integer.parseInt(chocolate);
-    	} catch (NumberFormatException e) {
-    		throw new RecipeException("Units of chocolate must be a positive integer");
+    	int amtChocolate = parseUnits(chocolate);
+    	if (amtChocolate == INVALID_UNITS) {
+    		throw RecipeErrorCode.CHOCOLATE.reject();
+    	}
+    	this.amtChocolate = amtChocolate;
+	}
+    /**
+     * Sets amtChocolate without throwing.
+     * @param chocolate   The units as text.
+     * @return   false, leaving amtChocolate unchanged, if the text is not a
+     *           non-negative integer.
+     */
+    public boolean trySetAmtChocolate(CharSequence chocolate) {
+    	int amtChocolate = parseUnits(chocolate);
+    	if (amtChocolate == INVALID_UNITS) {
+    		RecipeErrorCode.CHOCOLATE.countRejection();
+    		return false;
     	}
-		if (amtChocolate >= 0) {
-			this.amtChocolate = amtChocolate;
-		} else {
-			throw new RecipeException("Units of chocolate must be a positive integer");
-		}
+    	this.amtChocolate = amtChocolate;
+    	return true;
 	}
     /**
 	 * @return   Returns the amtCoffee.
@@ -57,17 +82,26 @@ public class Recipe {
 	 * @param amtCoffee   The amtCoffee to set.
 	 */
     public void setAmtCoffee(String coffee) throws RecipeException {
-    	int amtCoffee = 0;
-    	try {
-    		amtCoffee = Integer.parseInt(coffee);
-    	} catch (NumberFormatException e) {
-    		throw new RecipeException("Units of coffee must be a positive integer");
+    	int amtCoffee = parseUnits(coffee);
+    	if (amtCoffee == INVALID_UNITS) {
+    		throw RecipeErrorCode.COFFEE.reject();
     	}
-		if (amtCoffee >= 0) {
-			this.amtCoffee = amtCoffee;
-		} else {
-			throw new RecipeException("Units of coffee must be a positive integer");
-		}
+    	this.amtCoffee = amtCoffee;
+	}
+    /**
+     * Sets amtCoffee without throwing.
+     * @param coffee   The units as text.
+     * @return   false, leaving amtCoffee unchanged, if the text is not a
+     *           non-negative integer.
+     */
+    public boolean trySetAmtCoffee(CharSequence coffee) {
+    	int amtCoffee = parseUnits(coffee);
+    	if (amtCoffee == INVALID_UNITS) {
+    		RecipeErrorCode.COFFEE.countRejection();
+    		return false;
+    	}
+    	this.amtCoffee = amtCoffee;
+    	return true;
 	}
     /**
 	 * @return   Returns the amtMilk.
@@ -78,18 +112,27 @@ public class Recipe {
     /**
 	 * @param amtMilk   The amtMilk to set.
 	 */
-    public void setAmtMilk(String milk) throws RecipeException{
-    	int amtMilk = 0;
-    	try {
-    		amtMilk = Integer.parseInt(milk);
-    	} catch (NumberFormatException e) {
-    		throw new RecipeException("Units of milk must be a positive integer");
+    public void setAmtMilk(String milk) throws RecipeException {
+    	int amtMilk = parseUnits(milk);
+    	if (amtMilk == INVALID_UNITS) {
+    		throw RecipeErrorCode.MILK.reject();
+    	}
+    	this.amtMilk = amtMilk;
+	}
+    /**
+     * Sets amtMilk without throwing.
+     * @param milk   The units as text.
+     * @return   false, leaving amtMilk unchanged, if the text is not a
+     *           non-negative integer.
+     */
+    public boolean trySetAmtMilk(CharSequence milk) {
+    	int amtMilk = parseUnits(milk);
+    	if (amtMilk == INVALID_UNITS) {
+    		RecipeErrorCode.MILK.countRejection();
+    		return false;
     	}
-		if (amtMilk >= 0) {
-			this.amtMilk = amtMilk;
-		} else {
-			throw new RecipeException("Units of milk must be a positive integer");
-		}
+    	this.amtMilk = amtMilk;
+    	return true;
 	}
     /**
 	 * @return   Returns the amtSugar.
@@ -101,17 +144,26 @@ public class Recipe {
 	 * @param amtSugar   The amtSugar to set.
 	 */
     public void setAmtSugar(String sugar) throws RecipeException {
-    	int amtSugar = 0;
-    	try {
-    		amtSugar = Integer.parseInt(sugar);
-    	} catch (NumberFormatException e) {
-    		throw new RecipeException("Units of sugar must be a positive integer");
+    	int amtSugar = parseUnits(sugar);
+    	if (amtSugar == INVALID_UNITS) {
+    		throw RecipeErrorCode.SUGAR.reject();
     	}
-		if (amtSugar >= 0) {
-			this.amtSugar = amtSugar;
-		} else {
-			throw new RecipeException("Units of sugar must be a positive integer");
-		}
+    	this.amtSugar = amtSugar;
+	}
+    /**
+     * Sets amtSugar without throwing.
+     * @param sugar   The units as text.
+     * @return   false, leaving amtSugar unchanged, if the text is not a
+     *           non-negative integer.
+     */
+    public boolean trySetAmtSugar(CharSequence sugar) {
+    	int amtSugar = parseUnits(sugar);
+    	if (amtSugar == INVALID_UNITS) {
+    		RecipeErrorCode.SUGAR.countRejection();
+    		return false;
+    	}
+    	this.amtSugar = amtSugar;
+    	return true;
 	}
     /**
 	 * @return   Returns the name.
@@ -137,18 +189,117 @@ public class Recipe {
 	 * @param price   The price to set.
 	 */
     public void setPrice(String price) throws RecipeException{
-    	int amtPrice = 0;
-    	try {
-    		amtPrice = Integer.parseInt(price);
-    	} catch (NumberFormatException e) {
-    		throw new RecipeException("Price must be a positive integer");
-    	}
-		if (amtPrice >= 0) {
-			this.price = amtPrice;
-		} else {
-			throw new RecipeException("Price must be a positive integer");
-		}
-	} 
+    	int amtPrice = parseUnits(price);
+    	if (amtPrice == INVALID_UNITS) {
+    		throw RecipeErrorCode.PRICE.reject();
+    	}
+    	this.price = amtPrice;
+	}
+    /**
+     * Sets the price without throwing.
+     * @param price   The price as text.
+     * @return   false, leaving the price unchanged, if the text is not a
+     *           non-negative integer.
+     */
+    public boolean trySetPrice(CharSequence price) {
+    	int amtPrice = parseUnits(price);
+    	if (amtPrice == INVALID_UNITS) {
+    		RecipeErrorCode.PRICE.countRejection();
+    		return false;
+    	}
+    	this.price = amtPrice;
+    	return true;
+	}
+    
+    /**
+     * Parses a price or an amount of units.
+     * @param text
+     * @return   the value, or INVALID_UNITS if the text is null or not
+     *           a non-negative integer.
+     */
+    public static int parseUnits(CharSequence text) {
+    	return text == null ? INVALID_UNITS : parseUnits(text, 0, text.length());
+    }
+    
+    /**
+     * Parses a price or an amount of units from text[start, end) in one
+     * pass and without throwing.  Accepts exactly the text that
+     * Integer.parseInt accepts with a non-negative result.
+     * @param text
+     * @param start
+     * @param end
+     * @return   the value, or INVALID_UNITS if the text is not a
+     *           non-negative integer.
+     */
+    public static int parseUnits(CharSequence text, int start, int end) {
+    	if (start >= end) {
+    		return INVALID_UNITS;
+    	}
+    	char first = text.charAt(start);
+    	boolean negative = first == '-';
+    	if (negative || first == '+') {
+    		if (++start == end) {
+    			return INVALID_UNITS;
+    		}
+    	}
+    	long value = 0;
+    	for (int i = start; i < end; i++) {
+    		char c = text.charAt(i);
+    		int digit = c >= '0' && c <= '9' ? c - '0' : c < 128 ? -1 : Character.digit(c, 10);
+    		if (digit < 0) {
+    			return INVALID_UNITS;
+    		}
+    		value = value * 10 + digit;
+    		if (value > Integer.MAX_VALUE) {
+    			//Too large, or below Integer.MIN_VALUE when negative
+    			return INVALID_UNITS;
+    		}
+    	}
+    	//Only a negative zero is not negative
+    	return negative && value != 0 ? INVALID_UNITS : (int) value;
+    }
+    
+    /**
+     * Parses a price or an amount of units from UTF-8 bytes, as
+     * parseUnits(CharSequence, int, int) does for text.
+     * @param bytes
+     * @param offset
+     * @param length
+     * @return   the value, or INVALID_UNITS if the bytes are not a
+     *           non-negative integer.
+     */
+    public static int parseUnits(byte[] bytes, int offset, int length) {
+    	int end = offset + length;
+    	for (int i = offset; i < end; i++) {
+    		if (bytes[i] < 0) {
+    			//Non-ASCII digits are rare; let the text path handle them
+    			String text = new String(bytes, offset, length, StandardCharsets.UTF_8);
+    			return parseUnits(text, 0, text.length());
+    		}
+    	}
+    	if (length <= 0) {
+    		return INVALID_UNITS;
+    	}
+    	byte first = bytes[offset];
+    	boolean negative = first == '-';
+    	if (negative || first == '+') {
+    		if (++offset == end) {
+    			return INVALID_UNITS;
+    		}
+    	}
+    	long value = 0;
+    	for (int i = offset; i < end; i++) {
+    		int digit = bytes[i] - '0';
+    		if (digit < 0 || digit > 9) {
+    			return INVALID_UNITS;
+    		}
+    		value = value * 10 + digit;
+    		if (value > Integer.MAX_VALUE) {
+    			return INVALID_UNITS;
+    		}
+    	}
+    	return negative && value != 0 ? INVALID_UNITS : (int) value;
+    }
     
     /**
      * Returns the name of the recipe.
@@ -0,0 +1,89 @@
+package main.najah.code;
+
+import java.util.stream.IntStream;
+
+/**
+ * Validates many raw recipe rows at once and reports every invalid
+ * field instead of stopping at the first.
+ *
+ * Each row holds name, price, coffee, milk, sugar and chocolate as text,
+ * in that order, and is checked with the same rules as the Recipe
+ * setters.  Fields are parsed with Recipe.parseUnits, so no exception is
+ * thrown for a bad field, and results go into arrays shared by the whole
+ * batch, so a valid row costs no allocation.  Large batches are split
+ * into blocks of rows that are validated in parallel.
+ */
+public class RecipeBatchValidator {
+
+	/** Fields of a row: the name followed by one per error code, see RecipeErrorCode.getField() */
+	public static final int FIELDS = 1 + RecipeErrorCode.values().length;
+
+	private static final int BLOCK_ROWS = 1024;
+	private static final RecipeErrorCode[] CODES = RecipeErrorCode.values();
+
+	private final int parallelThreshold;
+
+	/**
+	 * Creates a validator that goes parallel from 4096 rows on.
+	 */
+	public RecipeBatchValidator() {
+		this(4 * BLOCK_ROWS);
+	}
+
+	/**
+	 * Creates a validator.
+	 * @param parallelThreshold   fewest rows validated in parallel
+	 */
+	public RecipeBatchValidator(int parallelThreshold) {
+		if (parallelThreshold <= 0) {
+			throw new IllegalArgumentException("Parallel threshold must be positive");
+		}
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	/**
+	 * Validates the rows.  A missing or null field is invalid, except
+	 * the name, which defaults to empty as in Recipe.setName; fields
+	 * after the sixth are ignored.  The rows must not change while they
+	 * are validated.
+	 * @param rows
+	 * @return RecipeValidationResult
+	 */
+	public RecipeValidationResult validate(String[][] rows) {
+		RecipeValidationResult result = new RecipeValidationResult(rows.length);
+		int blocks = (rows.length + BLOCK_ROWS - 1) / BLOCK_ROWS;
+		IntStream stream = IntStream.range(0, blocks);
+		if (rows.length >= parallelThreshold) {
+			stream = stream.parallel();
+		}
+		stream.forEach(block -> validate(rows, block * BLOCK_ROWS,
+				Math.min(rows.length, (block + 1) * BLOCK_ROWS), result));
+		return result;
+	}
+
+	private static void validate(String[][] rows, int from, int to, RecipeValidationResult result) {
+		long[] rejections = new long[CODES.length];
+		for (int row = from; row < to; row++) {
+			String[] fields = rows[row];
+			int count = fields == null ? 0 : fields.length;
+			String name = count > 0 ? fields[0] : null;
+			result.names[row] = name == null ? "" : name;
+			int mask = 0;
+			for (RecipeErrorCode code : CODES) {
+				int field = code.getField();
+				int value = Recipe.parseUnits(field < count ? fields[field] : null);
+				if (value == Recipe.INVALID_UNITS) {
+					mask |= 1 << code.ordinal();
+					rejections[code.ordinal()]++;
+				}
+				result.values[row * CODES.length + code.ordinal()] = value;
+			}
+			if (mask != 0) {
+				result.errors[row] = (byte) mask;
+			}
+		}
+		for (RecipeErrorCode code : CODES) {
+			code.countRejections(rejections[code.ordinal()]);
+		}
+	}
+}
@@ -1,19 +1,43 @@
 package main.najah.code;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 public class RecipeBook {
-	
+
 	/** Array of recipes in coffee maker*/
 	private Recipe [] recipeArray;
 	/** Number of recipes in coffee maker */
-	private final int NUM_RECIPES = 4; 
-	
+	private final int NUM_RECIPES = 4;
+	/** Whether the recipe array grows instead of rejecting new recipes */
+	private final boolean growable;
+	/** Number of occupied slots; slots are filled in order and never emptied */
+	private int size;
+	/** Slot of each recipe keyed by name, the identity used by Recipe.equals.
+	 * Recipes must not be renamed while they are in the book. */
+	private final Map<String, Integer> nameIndex = new HashMap<>();
+	/** Receives an event for every change made to the book */
+	private final RecipeChangePublisher changes = new RecipeChangePublisher();
+
 	/**
 	 * Default constructor for a RecipeBook.
 	 */
 	public RecipeBook() {
+		this(false);
+	}
+
+	/**
+	 * Creates a RecipeBook.  A growable book has no capacity limit;
+	 * otherwise it holds at most four recipes.
+	 * @param growable
+	 */
+	public RecipeBook(boolean growable) {
+		this.growable = growable;
 		recipeArray = new Recipe[NUM_RECIPES];
 	}
-	
+
 	/**
 	 * Returns the recipe array.
 	 * @param r
@@ -22,32 +46,110 @@ public class RecipeBook {
 	public synchronized Recipe[] getRecipes() {
 		return recipeArray;
 	}
-	
+
+	/**
+	 * Returns the recipe with the given name and null if
+	 * no such recipe exists.
+	 * @param name
+	 * @return Recipe
+	 */
+	public synchronized Recipe getRecipe(String name) {
+		Integer slot = nameIndex.get(name);
+		return slot == null ? null : recipeArray[slot];
+	}
+
+	/**
+	 * Returns the position of the recipe with the given name
+	 * and -1 if no such recipe exists.
+	 * @param name
+	 * @return int
+	 */
+	public synchronized int indexOf(String name) {
+		Integer slot = nameIndex.get(name);
+		return slot == null ? -1 : slot;
+	}
+
+	/**
+	 * Returns the number of occupied slots.
+	 * @return int
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the publisher of changes made to this book.
+	 * @return RecipeChangePublisher
+	 */
+	public RecipeChangePublisher getChangePublisher() {
+		return changes;
+	}
+
+	/**
+	 * Returns true if the book grows instead of rejecting new recipes.
+	 * @return boolean
+	 */
+	public boolean isGrowable() {
+		return growable;
+	}
+
 	public synchronized boolean addRecipe(Recipe r) {
-		//Assume recipe doesn't exist in the array until 
-		//find out otherwise
-		boolean exists = false;
 		//Check that recipe doesn't already exist in array
-		for (int i = 0; i < recipeArray.length; i++ ) {
-			if (r.equals(recipeArray[i])) {
-				exists = true;
-			}
+		if (nameIndex.containsKey(r.getName())) {
+			return false;
 		}
-		//Assume recipe cannot be added until find an empty
-		//spot
-		boolean added = false;
 		//Check for first empty spot in array
-		if (!exists) {
-			for (int i = 0; i < recipeArray.length && !added; i++) {
-				if (recipeArray[i] == null) {
-					recipeArray[i] = r;
-					added = true;
-				}
+		if (size == recipeArray.length) {
+			if (!growable) {
+				return false;
+			}
+			recipeArray = Arrays.copyOf(recipeArray, recipeArray.length * 2);
+		}
+		recipeArray[size] = r;
+		nameIndex.put(r.getName(), size);
+		size++;
+		if (changes.hasSubscribers()) {
+			changes.publish(new RecipeChangeEvent(RecipeChangeEvent.Type.ADDED, size - 1, null, r));
+		}
+		return true;
+	}
+
+	/**
+	 * Adds a batch of recipes while holding the lock once and returns
+	 * how many were added.  Each recipe is added as by addRecipe.
+	 * @param recipes
+	 * @return int
+	 */
+	public synchronized int addRecipes(Collection<? extends Recipe> recipes) {
+		int added = 0;
+		for (Recipe r : recipes) {
+			if (addRecipe(r)) {
+				added++;
 			}
 		}
 		return added;
 	}
 
+	/**
+	 * Returns a book holding the given recipes in the same slots, as
+	 * encoded by RecipeCodec.  Unlike addRecipe this keeps every deleted
+	 * or edited slot, although they share the empty name, and publishes
+	 * no events.  A fixed-size book keeps the first four slots.
+	 * @param growable
+	 * @param slots     occupied slots in order
+	 * @return RecipeBook
+	 */
+	static RecipeBook restore(boolean growable, Recipe[] slots) {
+		RecipeBook book = new RecipeBook(growable);
+		int length = growable ? Math.max(slots.length, book.NUM_RECIPES) : book.NUM_RECIPES;
+		book.recipeArray = Arrays.copyOf(slots, length);
+		book.size = Math.min(slots.length, length);
+		for (int slot = 0; slot < book.size; slot++) {
+			book.nameIndex.putIfAbsent(book.recipeArray[slot].getName(), slot);
+		}
+		return book;
+	}
+
 	/**
 	 * Returns the name of the recipe deleted at the position specified
 	 * and null if the recipe does not exist.
@@ -57,13 +159,13 @@ public class RecipeBook {
 	public synchronized String deleteRecipe(int recipeToDelete) {
 		if (recipeArray[recipeToDelete] != null) {
 			String recipeName = recipeArray[recipeToDelete].getName();
-			recipeArray[recipeToDelete] = new Recipe();
+			replace(recipeToDelete, new Recipe(), RecipeChangeEvent.Type.DELETED);
 			return recipeName;
 		} else {
 			return null;
 		}
 	}
-	
+
 	/**
 	 * Returns the name of the recipe edited at the position specified
 	 * and null if the recipe does not exist.
@@ -75,11 +177,28 @@ public class RecipeBook {
 		if (recipeArray[recipeToEdit] != null) {
 			String recipeName = recipeArray[recipeToEdit].getName();
 			newRecipe.setName("");
-			recipeArray[recipeToEdit] = newRecipe;
+			replace(recipeToEdit, newRecipe, RecipeChangeEvent.Type.EDITED);
 			return recipeName;
 		} else {
 			return null;
 		}
 	}
 
+	/**
+	 * Puts a recipe into an occupied slot and updates the name index.
+	 * Only the empty name of deleted and edited slots can occupy
+	 * several slots, and it is never removed once present.
+	 */
+	private void replace(int slot, Recipe r, RecipeChangeEvent.Type type) {
+		Recipe old = recipeArray[slot];
+		recipeArray[slot] = r;
+		if (!old.getName().equals(r.getName())) {
+			nameIndex.remove(old.getName());
+		}
+		nameIndex.putIfAbsent(r.getName(), slot);
+		if (changes.hasSubscribers()) {
+			changes.publish(new RecipeChangeEvent(type, slot, old, r));
+		}
+	}
+
 }
@@ -0,0 +1,99 @@
+package main.najah.code;
+
+import java.util.Map;
+
+/**
+ * An immutable view of the recipes in a ConcurrentRecipeBook at one
+ * version.  Snapshots can be shared between threads freely.
+ */
+public final class RecipeBookSnapshot {
+
+	/** Recipe slots; never modified once the snapshot is published */
+	private final Recipe [] recipeArray;
+	/** Number of occupied slots */
+	private final int size;
+	/** Slot of each recipe keyed by name; never modified once published */
+	private final Map<String, Integer> nameIndex;
+	/** Number of changes published before this snapshot */
+	private final long version;
+
+	RecipeBookSnapshot(Recipe[] recipeArray, int size, Map<String, Integer> nameIndex, long version) {
+		this.recipeArray = recipeArray;
+		this.size = size;
+		this.nameIndex = nameIndex;
+		this.version = version;
+	}
+
+	/**
+	 * Returns the version of the book this snapshot shows.  Each
+	 * published change, or committed transaction, adds one.
+	 * @return long
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns a copy of the recipe array.  Empty slots are null.
+	 * @return Recipe[]
+	 */
+	public Recipe[] getRecipes() {
+		return recipeArray.clone();
+	}
+
+	/**
+	 * Returns the recipe at the position specified and null if
+	 * the slot is empty or out of range.
+	 * @param slot
+	 * @return Recipe
+	 */
+	public Recipe getRecipe(int slot) {
+		return slot >= 0 && slot < recipeArray.length ? recipeArray[slot] : null;
+	}
+
+	/**
+	 * Returns the recipe with the given name and null if
+	 * no such recipe exists.
+	 * @param name
+	 * @return Recipe
+	 */
+	public Recipe getRecipe(String name) {
+		Integer slot = nameIndex.get(name);
+		return slot == null ? null : recipeArray[slot];
+	}
+
+	/**
+	 * Returns the position of the recipe with the given name
+	 * and -1 if no such recipe exists.
+	 * @param name
+	 * @return int
+	 */
+	public int indexOf(String name) {
+		Integer slot = nameIndex.get(name);
+		return slot == null ? -1 : slot;
+	}
+
+	/**
+	 * Returns the number of occupied slots.
+	 * @return int
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of slots, occupied or not.
+	 * @return int
+	 */
+	public int capacity() {
+		return recipeArray.length;
+	}
+
+	Recipe[] recipeArray() {
+		return recipeArray;
+	}
+
+	Map<String, Integer> nameIndex() {
+		return nameIndex;
+	}
+}
@@ -0,0 +1,106 @@
+package main.najah.code;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A set of changes to a ConcurrentRecipeBook that is published as a
+ * single version.  Operations are only recorded until commit(); readers
+ * see either none of them or all of them.
+ *
+ * A transaction is meant to be used by one thread and committed once.
+ */
+public class RecipeBookTransaction {
+
+	private final ConcurrentRecipeBook book;
+	private final long baseVersion;
+	private final List<Operation> operations = new ArrayList<>();
+	private boolean committed;
+
+	RecipeBookTransaction(ConcurrentRecipeBook book, long baseVersion) {
+		this.book = book;
+		this.baseVersion = baseVersion;
+	}
+
+	/**
+	 * Returns the version of the book when the transaction began.
+	 * @return long
+	 */
+	public long getBaseVersion() {
+		return baseVersion;
+	}
+
+	/**
+	 * Stages adding a recipe.
+	 * @param r
+	 * @return RecipeBookTransaction
+	 */
+	public RecipeBookTransaction addRecipe(Recipe r) {
+		return stage(draft -> draft.add(r));
+	}
+
+	/**
+	 * Stages deleting the recipe at the position specified.
+	 * @param recipeToDelete
+	 * @return RecipeBookTransaction
+	 */
+	public RecipeBookTransaction deleteRecipe(int recipeToDelete) {
+		return stage(draft -> draft.delete(recipeToDelete) != null);
+	}
+
+	/**
+	 * Stages replacing the recipe at the position specified.  As with
+	 * RecipeBook.editRecipe, the new recipe's name is cleared, but only
+	 * when the transaction commits.
+	 * @param recipeToEdit
+	 * @param newRecipe
+	 * @return RecipeBookTransaction
+	 */
+	public RecipeBookTransaction editRecipe(int recipeToEdit, Recipe newRecipe) {
+		return stage(draft -> draft.edit(recipeToEdit, newRecipe) != null);
+	}
+
+	/**
+	 * Applies the staged operations to the latest version of the book
+	 * and publishes them as one new version.  Returns false and changes
+	 * nothing if any operation fails as it would on its own: a duplicate
+	 * or a full book for an add, an empty slot for a delete or edit.
+	 * @return boolean
+	 */
+	public boolean commit() {
+		return commit(false);
+	}
+
+	/**
+	 * Commits like commit(), but only if no other change has been
+	 * published since the transaction began.
+	 * @return boolean
+	 */
+	public boolean commitIfUnchanged() {
+		return commit(true);
+	}
+
+	private boolean commit(boolean requireBase) {
+		if (committed) {
+			throw new IllegalStateException("Transaction already committed");
+		}
+		boolean done = book.commit(operations, baseVersion, requireBase);
+		committed = done;
+		return done;
+	}
+
+	private RecipeBookTransaction stage(Operation op) {
+		if (committed) {
+			throw new IllegalStateException("Transaction already committed");
+		}
+		operations.add(op);
+		return this;
+	}
+
+	/**
+	 * A staged change, applied to a draft of the book at commit time.
+	 */
+	interface Operation {
+		boolean applyTo(ConcurrentRecipeBook.Draft draft);
+	}
+}
@@ -0,0 +1,307 @@
+package main.najah.code;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A column-oriented store for large numbers of recipes.
+ *
+ * Prices and ingredient amounts are kept in one int array per field
+ * and names are replaced by ids into a dictionary of distinct names,
+ * so a catalog holds no per-recipe objects and a scan over one field
+ * reads a single contiguous array.  Rows are read through a reusable
+ * RecipeView or copied out as Recipe objects when needed.
+ *
+ * A catalog is not thread-safe; it must not be read while it is
+ * being added to.
+ */
+public class RecipeCatalog {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	/** Number of rows in the catalog */
+	private int size;
+	private int[] nameColumn = new int[INITIAL_CAPACITY];
+	private int[] priceColumn = new int[INITIAL_CAPACITY];
+	/** One column per ingredient, indexed by Ingredient.ordinal() */
+	private final int[][] amountColumns = new int[Ingredient.values().length][INITIAL_CAPACITY];
+	/** Distinct names, indexed by name id */
+	private final List<String> dictionary = new ArrayList<>();
+	private final Map<String, Integer> dictionaryIds = new HashMap<>();
+
+	/**
+	 * Creates a catalog holding the recipes of a RecipeBook,
+	 * in slot order.  Recipes are skipped as in addAll.
+	 * @param book
+	 * @return RecipeCatalog
+	 */
+	public static RecipeCatalog of(RecipeBook book) {
+		RecipeCatalog catalog = new RecipeCatalog();
+		catalog.addAll(book);
+		return catalog;
+	}
+
+	/**
+	 * Appends the recipes of a RecipeBook, in slot order.  Slots left
+	 * by deleteRecipe and editRecipe hold a recipe with an empty name
+	 * and are skipped.
+	 * @param book
+	 */
+	public void addAll(RecipeBook book) {
+		Recipe[] recipes;
+		int count;
+		synchronized (book) {
+			recipes = book.getRecipes().clone();
+			count = book.size();
+		}
+		ensureCapacity(size + count);
+		for (int slot = 0; slot < count; slot++) {
+			if (!recipes[slot].getName().isEmpty()) {
+				add(recipes[slot]);
+			}
+		}
+	}
+
+	/**
+	 * Appends a recipe and returns its row.
+	 * @param r
+	 * @return int
+	 */
+	public int add(Recipe r) {
+		ensureCapacity(size + 1);
+		int row = size++;
+		nameColumn[row] = nameId(r.getName());
+		priceColumn[row] = r.getPrice();
+		for (Ingredient i : Ingredient.values()) {
+			amountColumns[i.ordinal()][row] = i.amountIn(r);
+		}
+		return row;
+	}
+
+	/**
+	 * Returns a growable RecipeBook holding a copy of every row.
+	 * Rows whose name is already in the book are left out, as
+	 * RecipeBook.addRecipe would.
+	 * @return RecipeBook
+	 */
+	public RecipeBook toRecipeBook() {
+		RecipeBook book = new RecipeBook(true);
+		for (int row = 0; row < size; row++) {
+			book.addRecipe(getRecipe(row));
+		}
+		return book;
+	}
+
+	/**
+	 * Returns the number of rows.
+	 * @return int
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of distinct names.
+	 * @return int
+	 */
+	public int distinctNames() {
+		return dictionary.size();
+	}
+
+	public String getName(int row) {
+		return dictionary.get(nameColumn[checkRow(row)]);
+	}
+
+	public int getPrice(int row) {
+		return priceColumn[checkRow(row)];
+	}
+
+	public int getAmount(Ingredient ingredient, int row) {
+		return amountColumns[ingredient.ordinal()][checkRow(row)];
+	}
+
+	/**
+	 * Returns a new Recipe holding a copy of a row.
+	 * @param row
+	 * @return Recipe
+	 */
+	public Recipe getRecipe(int row) {
+		checkRow(row);
+		return new Recipe(dictionary.get(nameColumn[row]), priceColumn[row],
+				amountColumns[Ingredient.COFFEE.ordinal()][row],
+				amountColumns[Ingredient.MILK.ordinal()][row],
+				amountColumns[Ingredient.SUGAR.ordinal()][row],
+				amountColumns[Ingredient.CHOCOLATE.ordinal()][row]);
+	}
+
+	/**
+	 * Returns a view positioned on the first row.  A view can be moved
+	 * to any row, so one view serves a whole scan.  A view of an empty
+	 * catalog is on no row and reads as a default Recipe until moved.
+	 * @return RecipeView
+	 */
+	public RecipeView view() {
+		return new RecipeView();
+	}
+
+	/**
+	 * Counts the rows that need more than the given units of an ingredient.
+	 * @param ingredient
+	 * @param threshold
+	 * @return int
+	 */
+	public int countMoreThan(Ingredient ingredient, int threshold) {
+		int[] column = amountColumns[ingredient.ordinal()];
+		int count = 0;
+		for (int row = 0; row < size; row++) {
+			if (column[row] > threshold) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Writes the rows that need more than the given units of an
+	 * ingredient into rows, in ascending order, and returns how many
+	 * rows match.  Matches that do not fit into rows are counted
+	 * but not written.
+	 * @param ingredient
+	 * @param threshold
+	 * @param rows
+	 * @return int
+	 */
+	public int selectMoreThan(Ingredient ingredient, int threshold, int[] rows) {
+		return select(amountColumns[ingredient.ordinal()], threshold + 1L, Integer.MAX_VALUE, rows);
+	}
+
+	/**
+	 * Writes the rows priced between min and max inclusive into rows,
+	 * in ascending order, and returns how many rows match.  Matches that
+	 * do not fit into rows are counted but not written.
+	 * @param min
+	 * @param max
+	 * @param rows
+	 * @return int
+	 */
+	public int selectPriceBetween(int min, int max, int[] rows) {
+		return select(priceColumn, min, max, rows);
+	}
+
+	private int select(int[] column, long min, long max, int[] rows) {
+		int count = 0;
+		for (int row = 0; row < size; row++) {
+			int value = column[row];
+			if (value >= min && value <= max) {
+				if (count < rows.length) {
+					rows[count] = row;
+				}
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private int nameId(String name) {
+		Integer id = dictionaryIds.get(name);
+		if (id == null) {
+			id = dictionary.size();
+			dictionary.add(name);
+			dictionaryIds.put(name, id);
+		}
+		return id;
+	}
+
+	private int checkRow(int row) {
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException("Row " + row + " out of range");
+		}
+		return row;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity <= nameColumn.length) {
+			return;
+		}
+		int grown = Math.max(capacity, nameColumn.length * 2);
+		nameColumn = Arrays.copyOf(nameColumn, grown);
+		priceColumn = Arrays.copyOf(priceColumn, grown);
+		for (int i = 0; i < amountColumns.length; i++) {
+			amountColumns[i] = Arrays.copyOf(amountColumns[i], grown);
+		}
+	}
+
+	/**
+	 * A movable, read-only window onto one row of the catalog.
+	 */
+	public class RecipeView {
+
+		private int row;
+
+		private RecipeView() {
+		}
+
+		/**
+		 * Moves the view to a row and returns it.
+		 * @param row
+		 * @return RecipeView
+		 */
+		public RecipeView moveTo(int row) {
+			this.row = checkRow(row);
+			return this;
+		}
+
+		public int getRow() {
+			return row;
+		}
+
+		/**
+		 * Returns whether the view is on a row of the catalog.  Only a
+		 * view of an empty catalog that has not been moved is not.
+		 * @return boolean
+		 */
+		public boolean hasRow() {
+			return row < size;
+		}
+
+		public String getName() {
+			//The columns of an empty catalog read as zeros, but there is no name to look up
+			return hasRow() ? dictionary.get(nameColumn[row]) : "";
+		}
+
+		public int getPrice() {
+			return priceColumn[row];
+		}
+
+		public int getAmtCoffee() {
+			return amountColumns[Ingredient.COFFEE.ordinal()][row];
+		}
+
+		public int getAmtMilk() {
+			return amountColumns[Ingredient.MILK.ordinal()][row];
+		}
+
+		public int getAmtSugar() {
+			return amountColumns[Ingredient.SUGAR.ordinal()][row];
+		}
+
+		public int getAmtChocolate() {
+			return amountColumns[Ingredient.CHOCOLATE.ordinal()][row];
+		}
+
+		/**
+		 * Returns a new Recipe holding a copy of the current row.
+		 * @return Recipe
+		 */
+		public Recipe toRecipe() {
+			return hasRow() ? getRecipe(row) : new Recipe();
+		}
+
+		public String toString() {
+			return getName();
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package main.najah.code;
+
+/**
+ * A change made to one slot of a RecipeBook.
+ */
+public class RecipeChangeEvent {
+
+	/**
+	 * The kind of change.
+	 */
+	public enum Type {
+		ADDED, DELETED, EDITED
+	}
+
+	private final Type type;
+	private final int slot;
+	private final Recipe before;
+	private final Recipe after;
+
+	RecipeChangeEvent(Type type, int slot, Recipe before, Recipe after) {
+		this.type = type;
+		this.slot = slot;
+		this.before = before;
+		this.after = after;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * Returns the position of the changed slot.
+	 * @return int
+	 */
+	public int getSlot() {
+		return slot;
+	}
+
+	/**
+	 * Returns the recipe the slot held before the change and null
+	 * for an added recipe.
+	 * @return Recipe
+	 */
+	public Recipe getBefore() {
+		return before;
+	}
+
+	/**
+	 * Returns the recipe the slot holds after the change.  A deleted
+	 * slot holds a default recipe, as RecipeBook.deleteRecipe leaves it.
+	 * @return Recipe
+	 */
+	public Recipe getAfter() {
+		return after;
+	}
+
+	public String toString() {
+		return type + " " + slot + ": " + before + " -> " + after;
+	}
+}
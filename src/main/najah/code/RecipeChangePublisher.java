@@ -0,0 +1,179 @@
+package main.najah.code;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the changes made to a RecipeBook.
+ *
+ * Each subscriber has its own bounded buffer.  Publishing only appends
+ * to those buffers and schedules delivery on the executor, so the
+ * mutating thread never waits for a subscriber.  Delivery follows the
+ * subscriber's demand and hands over up to maxBatch buffered events per
+ * onNext; one requested item is one batch.  A subscriber that lets its
+ * buffer fill up is cancelled with onError and has to re-read the book
+ * to resynchronize.
+ */
+public class RecipeChangePublisher implements Flow.Publisher<List<RecipeChangeEvent>> {
+
+	private final Executor executor;
+	private final int bufferCapacity;
+	private final int maxBatch;
+	private final List<ChangeSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Creates a publisher delivering on the common pool with the
+	 * default Flow buffer size and batches of up to 64 events.
+	 */
+	public RecipeChangePublisher() {
+		this(ForkJoinPool.commonPool(), Flow.defaultBufferSize(), 64);
+	}
+
+	/**
+	 * Creates a publisher.
+	 * @param executor         runs deliveries to subscribers
+	 * @param bufferCapacity   most events buffered per subscriber
+	 * @param maxBatch         most events delivered per onNext
+	 */
+	public RecipeChangePublisher(Executor executor, int bufferCapacity, int maxBatch) {
+		if (bufferCapacity <= 0 || maxBatch <= 0) {
+			throw new IllegalArgumentException("Buffer capacity and batch size must be positive");
+		}
+		this.executor = executor;
+		this.bufferCapacity = bufferCapacity;
+		this.maxBatch = maxBatch;
+	}
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super List<RecipeChangeEvent>> subscriber) {
+		ChangeSubscription subscription = new ChangeSubscription(subscriber);
+		subscriptions.add(subscription);
+		subscriber.onSubscribe(subscription);
+	}
+
+	/**
+	 * Returns true if anyone is subscribed, so callers can skip
+	 * building events nobody receives.
+	 * @return boolean
+	 */
+	public boolean hasSubscribers() {
+		return !subscriptions.isEmpty();
+	}
+
+	/**
+	 * Returns the number of current subscribers.
+	 * @return int
+	 */
+	public int getNumberOfSubscribers() {
+		return subscriptions.size();
+	}
+
+	void publish(RecipeChangeEvent event) {
+		for (ChangeSubscription s : subscriptions) {
+			s.offer(event);
+		}
+	}
+
+	private class ChangeSubscription implements Flow.Subscription, Runnable {
+
+		private final Flow.Subscriber<? super List<RecipeChangeEvent>> subscriber;
+		private final ArrayDeque<RecipeChangeEvent> buffer = new ArrayDeque<>();
+		private final AtomicLong demand = new AtomicLong();
+		/** Pending drain requests; only the thread that raises it from 0 drains */
+		private final AtomicInteger work = new AtomicInteger();
+		private volatile boolean cancelled;
+		private volatile Throwable failure;
+
+		ChangeSubscription(Flow.Subscriber<? super List<RecipeChangeEvent>> subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		void offer(RecipeChangeEvent event) {
+			synchronized (buffer) {
+				if (cancelled || failure != null) {
+					return;
+				}
+				if (buffer.size() == bufferCapacity) {
+					buffer.clear();
+					failure = new IllegalStateException("Subscriber buffer overflow");
+				} else {
+					buffer.add(event);
+				}
+			}
+			signal();
+		}
+
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				failure = new IllegalArgumentException("Request must be positive");
+			} else {
+				demand.getAndUpdate(d -> d + n < 0 ? Long.MAX_VALUE : d + n);
+			}
+			signal();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			subscriptions.remove(this);
+			synchronized (buffer) {
+				buffer.clear();
+			}
+		}
+
+		private void signal() {
+			if (work.getAndIncrement() == 0) {
+				executor.execute(this);
+			}
+		}
+
+		/**
+		 * Delivers buffered events while there is demand.
+		 */
+		@Override
+		public void run() {
+			int missed = 1;
+			do {
+				while (!cancelled) {
+					if (failure != null) {
+						cancel();
+						subscriber.onError(failure);
+						return;
+					}
+					if (demand.get() == 0) {
+						break;
+					}
+					List<RecipeChangeEvent> batch;
+					synchronized (buffer) {
+						if (buffer.isEmpty()) {
+							break;
+						}
+						batch = new ArrayList<>(Math.min(buffer.size(), maxBatch));
+						while (batch.size() < maxBatch && !buffer.isEmpty()) {
+							batch.add(buffer.poll());
+						}
+					}
+					if (demand.get() != Long.MAX_VALUE) {
+						demand.decrementAndGet();
+					}
+					try {
+						subscriber.onNext(batch);
+					} catch (RuntimeException e) {
+						//A subscriber that throws is treated as cancelled
+						cancel();
+						return;
+					}
+				}
+				missed = work.addAndGet(-missed);
+			} while (missed != 0);
+		}
+	}
+}
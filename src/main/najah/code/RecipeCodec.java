@@ -0,0 +1,468 @@
+package main.najah.code;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes recipes and recipe books in a compact binary format.
+ *
+ * A recipe record holds its name followed by the price and the four
+ * ingredient amounts as unsigned varints, so small values take one
+ * byte.  The name is written as a varint tag followed by its UTF-8
+ * bytes, or, when it appears in the codec's name dictionary, as a tag
+ * holding only the dictionary id.  A single encoded recipe starts with
+ * the format version.
+ *
+ * An encoded book starts with a fixed-width header and a table with
+ * the offset of every record, so a BookView can decode one recipe
+ * without reading the others.  Books written with a dictionary record
+ * a fingerprint of it and can only be read by a codec with the same
+ * dictionary.
+ *
+ * All reads and writes go straight to the caller's ByteBuffer, heap or
+ * direct.  A codec is immutable and can be shared between threads.
+ */
+public class RecipeCodec {
+
+	/** Version written in front of every recipe and book */
+	public static final byte VERSION = 1;
+
+	private static final int MAGIC = 0x52424F4B;
+	/** Magic, version, flags, two reserved bytes, fingerprint, length and count */
+	private static final int HEADER_SIZE = 20;
+	private static final int FLAG_GROWABLE = 1;
+	private static final int FLAG_DICTIONARY = 2;
+	/** Longest name whose length still fits a tag */
+	private static final int MAX_NAME_BYTES = Integer.MAX_VALUE >>> 1;
+
+	private final String[] dictionary;
+	private final Map<String, Integer> dictionaryIds;
+	private final int fingerprint;
+
+	/**
+	 * Creates a codec that writes every name in full.
+	 */
+	public RecipeCodec() {
+		this.dictionary = null;
+		this.dictionaryIds = null;
+		this.fingerprint = 0;
+	}
+
+	/**
+	 * Creates a codec that writes names found in the dictionary as their
+	 * position in it.  Both sides of a transfer must use the same list.
+	 * @param dictionary
+	 */
+	public RecipeCodec(List<String> dictionary) {
+		this.dictionary = dictionary.toArray(new String[0]);
+		this.dictionaryIds = new HashMap<>();
+		for (int i = 0; i < this.dictionary.length; i++) {
+			dictionaryIds.putIfAbsent(this.dictionary[i], i);
+		}
+		this.fingerprint = dictionary.hashCode();
+	}
+
+	/**
+	 * Returns the number of bytes encode(Recipe, ByteBuffer) writes.
+	 * @param r
+	 * @return int
+	 */
+	public int encodedSize(Recipe r) {
+		return 1 + recordSize(r);
+	}
+
+	/**
+	 * Writes the version and the recipe at the buffer's position and
+	 * advances the position past them.
+	 * @param r
+	 * @param out
+	 * @throws BufferOverflowException if the buffer has too little room
+	 */
+	public void encode(Recipe r, ByteBuffer out) {
+		if (out.remaining() < encodedSize(r)) {
+			throw new BufferOverflowException();
+		}
+		out.put(VERSION);
+		putRecord(r, out);
+	}
+
+	/**
+	 * Reads a recipe written by encode(Recipe, ByteBuffer) at the
+	 * buffer's position and advances the position past it.
+	 * @param in
+	 * @return Recipe
+	 * @throws IllegalArgumentException if the data is not a valid recipe
+	 */
+	public Recipe decode(ByteBuffer in) {
+		if (!in.hasRemaining()) {
+			throw malformed();
+		}
+		byte version = in.get();
+		if (version != VERSION) {
+			throw new IllegalArgumentException("Unsupported format version " + version);
+		}
+		return getRecord(in);
+	}
+
+	/**
+	 * Returns the number of bytes encode(RecipeBook, ByteBuffer) writes
+	 * for the book as it is now.
+	 * @param book
+	 * @return int
+	 */
+	public int encodedSize(RecipeBook book) {
+		synchronized (book) {
+			return bookSize(book.getRecipes(), book.size());
+		}
+	}
+
+	/**
+	 * Returns a new buffer holding the encoded book, positioned at zero.
+	 * @param book
+	 * @return ByteBuffer
+	 */
+	public ByteBuffer encode(RecipeBook book) {
+		synchronized (book) {
+			ByteBuffer out = ByteBuffer.allocate(encodedSize(book));
+			encode(book, out);
+			return out.flip();
+		}
+	}
+
+	/**
+	 * Writes the book at the buffer's position and advances the position
+	 * past it.  The book is locked while it is written, so the encoding
+	 * is a consistent snapshot.
+	 * @param book
+	 * @param out
+	 * @throws BufferOverflowException if the buffer has too little room
+	 */
+	public void encode(RecipeBook book, ByteBuffer out) {
+		synchronized (book) {
+			Recipe[] recipes = book.getRecipes();
+			int count = book.size();
+			int length = bookSize(recipes, count);
+			if (out.remaining() < length) {
+				throw new BufferOverflowException();
+			}
+			ByteOrder order = out.order();
+			out.order(ByteOrder.BIG_ENDIAN);
+			try {
+				int start = out.position();
+				out.putInt(MAGIC);
+				out.put(VERSION);
+				out.put((byte) ((book.isGrowable() ? FLAG_GROWABLE : 0)
+						| (dictionary != null ? FLAG_DICTIONARY : 0)));
+				out.putShort((short) 0);
+				out.putInt(fingerprint);
+				out.putInt(length);
+				out.putInt(count);
+				int offset = HEADER_SIZE + 4 * count;
+				for (int i = 0; i < count; i++) {
+					out.putInt(offset);
+					offset += recordSize(recipes[i]);
+				}
+				for (int i = 0; i < count; i++) {
+					putRecord(recipes[i], out);
+				}
+				assert out.position() - start == length;
+			} finally {
+				out.order(order);
+			}
+		}
+	}
+
+	/**
+	 * Returns a view of the book encoded at the buffer's position and
+	 * advances the position past it.  Only the header is read; recipes
+	 * are decoded when they are asked for.  The view reads the buffer's
+	 * content, so the content must not change while the view is in use.
+	 * @param in
+	 * @return BookView
+	 * @throws IllegalArgumentException if the data is not a valid book
+	 */
+	public BookView view(ByteBuffer in) {
+		if (in.remaining() < HEADER_SIZE) {
+			throw malformed();
+		}
+		ByteBuffer data = in.slice().order(ByteOrder.BIG_ENDIAN);
+		if (data.getInt(0) != MAGIC) {
+			throw malformed();
+		}
+		byte version = data.get(4);
+		if (version != VERSION) {
+			throw new IllegalArgumentException("Unsupported format version " + version);
+		}
+		int flags = data.get(5);
+		if ((flags & FLAG_DICTIONARY) != 0 && (dictionary == null || data.getInt(8) != fingerprint)) {
+			throw new IllegalArgumentException("Name dictionary does not match");
+		}
+		int length = data.getInt(12);
+		int count = data.getInt(16);
+		if (length < HEADER_SIZE || length > data.limit() || count < 0 || count > (length - HEADER_SIZE) / 4) {
+			throw malformed();
+		}
+		in.position(in.position() + length);
+		return new BookView(data.limit(length), count, (flags & FLAG_GROWABLE) != 0);
+	}
+
+	private int bookSize(Recipe[] recipes, int count) {
+		long length = HEADER_SIZE + 4L * count;
+		for (int i = 0; i < count; i++) {
+			length += recordSize(recipes[i]);
+		}
+		if (length > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Book is too large to encode");
+		}
+		return (int) length;
+	}
+
+	private int recordSize(Recipe r) {
+		int size = varintSize(r.getPrice()) + varintSize(r.getAmtCoffee()) + varintSize(r.getAmtMilk())
+				+ varintSize(r.getAmtSugar()) + varintSize(r.getAmtChocolate());
+		Integer id = dictionaryId(r.getName());
+		if (id != null) {
+			return size + varintSize(id << 1 | 1);
+		}
+		int nameBytes = utf8Length(r.getName());
+		return size + varintSize(nameBytes << 1) + nameBytes;
+	}
+
+	private void putRecord(Recipe r, ByteBuffer out) {
+		String name = r.getName();
+		Integer id = dictionaryId(name);
+		if (id != null) {
+			putVarint(out, id << 1 | 1);
+		} else {
+			putVarint(out, utf8Length(name) << 1);
+			putUtf8(out, name);
+		}
+		putVarint(out, r.getPrice());
+		putVarint(out, r.getAmtCoffee());
+		putVarint(out, r.getAmtMilk());
+		putVarint(out, r.getAmtSugar());
+		putVarint(out, r.getAmtChocolate());
+	}
+
+	private Recipe getRecord(ByteBuffer in) {
+		String name = getName(in);
+		int price = getVarint(in);
+		int coffee = getVarint(in);
+		int milk = getVarint(in);
+		int sugar = getVarint(in);
+		int chocolate = getVarint(in);
+		return new Recipe(name, price, coffee, milk, sugar, chocolate);
+	}
+
+	private String getName(ByteBuffer in) {
+		int tag = getVarint(in);
+		if ((tag & 1) != 0) {
+			int id = tag >>> 1;
+			if (dictionary == null || id >= dictionary.length) {
+				throw malformed();
+			}
+			return dictionary[id];
+		}
+		int length = tag >>> 1;
+		if (length > in.remaining()) {
+			throw malformed();
+		}
+		if (length == 0) {
+			return "";
+		}
+		String name;
+		if (in.hasArray()) {
+			name = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+			in.position(in.position() + length);
+		} else {
+			byte[] bytes = new byte[length];
+			in.get(bytes);
+			name = new String(bytes, StandardCharsets.UTF_8);
+		}
+		return name;
+	}
+
+	private Integer dictionaryId(String name) {
+		return dictionaryIds == null ? null : dictionaryIds.get(name);
+	}
+
+	/**
+	 * Returns the length of the name in UTF-8, counting an unpaired
+	 * surrogate as the one byte String.getBytes replaces it with.
+	 */
+	private static int utf8Length(String s) {
+		long length = s.length();
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c >= 0x800) {
+				if (Character.isHighSurrogate(c) && i + 1 < s.length()
+						&& Character.isLowSurrogate(s.charAt(i + 1))) {
+					length += 2;
+					i++;
+				} else if (!Character.isSurrogate(c)) {
+					length += 2;
+				}
+			} else if (c >= 0x80) {
+				length++;
+			}
+		}
+		if (length > MAX_NAME_BYTES) {
+			throw new IllegalArgumentException("Recipe name is too long");
+		}
+		return (int) length;
+	}
+
+	/**
+	 * Writes the name as UTF-8 without an intermediate byte array.
+	 * Must produce exactly utf8Length(s) bytes.
+	 */
+	private static void putUtf8(ByteBuffer out, String s) {
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c < 0x80) {
+				out.put((byte) c);
+			} else if (c < 0x800) {
+				out.put((byte) (0xC0 | c >> 6));
+				out.put((byte) (0x80 | c & 0x3F));
+			} else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+					&& Character.isLowSurrogate(s.charAt(i + 1))) {
+				int cp = Character.toCodePoint(c, s.charAt(++i));
+				out.put((byte) (0xF0 | cp >> 18));
+				out.put((byte) (0x80 | cp >> 12 & 0x3F));
+				out.put((byte) (0x80 | cp >> 6 & 0x3F));
+				out.put((byte) (0x80 | cp & 0x3F));
+			} else if (Character.isSurrogate(c)) {
+				out.put((byte) '?');
+			} else {
+				out.put((byte) (0xE0 | c >> 12));
+				out.put((byte) (0x80 | c >> 6 & 0x3F));
+				out.put((byte) (0x80 | c & 0x3F));
+			}
+		}
+	}
+
+	private static int varintSize(int value) {
+		return value < 1 << 7 ? 1 : value < 1 << 14 ? 2 : value < 1 << 21 ? 3 : value < 1 << 28 ? 4 : 5;
+	}
+
+	private static void putVarint(ByteBuffer out, int value) {
+		while ((value & ~0x7F) != 0) {
+			out.put((byte) (value & 0x7F | 0x80));
+			value >>>= 7;
+		}
+		out.put((byte) value);
+	}
+
+	/**
+	 * Reads a varint holding a non-negative int.
+	 */
+	private static int getVarint(ByteBuffer in) {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			if (!in.hasRemaining()) {
+				throw malformed();
+			}
+			byte b = in.get();
+			value |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				if (value < 0 || (shift == 28 && b > 0x07)) {
+					throw malformed();
+				}
+				return value;
+			}
+		}
+		throw malformed();
+	}
+
+	private static IllegalArgumentException malformed() {
+		return new IllegalArgumentException("Malformed recipe data");
+	}
+
+	/**
+	 * A read-only view of an encoded book.  Each call decodes only the
+	 * record it needs, and calls from several threads do not interfere.
+	 */
+	public class BookView {
+
+		private final ByteBuffer data;
+		private final int count;
+		private final boolean growable;
+
+		BookView(ByteBuffer data, int count, boolean growable) {
+			this.data = data;
+			this.count = count;
+			this.growable = growable;
+		}
+
+		/**
+		 * Returns the number of recipes in the book.
+		 * @return int
+		 */
+		public int size() {
+			return count;
+		}
+
+		/**
+		 * Returns true if the encoded book was growable.
+		 * @return boolean
+		 */
+		public boolean isGrowable() {
+			return growable;
+		}
+
+		/**
+		 * Decodes the recipe in the given slot.
+		 * @param slot
+		 * @return Recipe
+		 */
+		public Recipe getRecipe(int slot) {
+			return getRecord(record(slot));
+		}
+
+		/**
+		 * Decodes only the name of the recipe in the given slot.
+		 * @param slot
+		 * @return String
+		 */
+		public String getName(int slot) {
+			return RecipeCodec.this.getName(record(slot));
+		}
+
+		/**
+		 * Decodes every recipe into a new RecipeBook, each in the slot it
+		 * was encoded from, deleted and edited slots included.  A
+		 * fixed-size book keeps its first four recipes.
+		 * @return RecipeBook
+		 */
+		public RecipeBook toRecipeBook() {
+			Recipe[] slots = new Recipe[count];
+			if (count > 0) {
+				//Records follow each other in slot order
+				ByteBuffer in = record(0);
+				for (int i = 0; i < count; i++) {
+					slots[i] = getRecord(in);
+				}
+			}
+			return RecipeBook.restore(growable, slots);
+		}
+
+		/**
+		 * Returns a private buffer positioned at the start of a record.
+		 */
+		private ByteBuffer record(int slot) {
+			if (slot < 0 || slot >= count) {
+				throw new IndexOutOfBoundsException("Slot " + slot + " out of range");
+			}
+			int offset = data.getInt(HEADER_SIZE + 4 * slot);
+			if (offset < HEADER_SIZE + 4 * count || offset >= data.limit()) {
+				throw malformed();
+			}
+			return data.duplicate().position(offset);
+		}
+	}
+}
@@ -0,0 +1,205 @@
+package main.najah.code;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Streams recipes from a delimited text file into a RecipeBook.
+ *
+ * Each row holds name, price, coffee, milk, sugar and chocolate, in
+ * that order.  The file is read through a small fixed buffer and cut
+ * into chunks of rows that are parsed in parallel; parsed chunks are
+ * added to the book in file order with one addRecipes call each.
+ * Rows that fail validation are reported with the same messages the
+ * Recipe setters use and do not stop the import.  Names are trimmed;
+ * the other fields are passed to the setters as they are, so a padded
+ * number is rejected just as Recipe.setPrice would reject it.
+ */
+public class RecipeCsvLoader {
+
+	private static final int FIELDS = 6;
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int CHUNK_ROWS = 8192;
+
+	private final char delimiter;
+	private final boolean header;
+	/** Most chunks parsed ahead of the book */
+	private final int maxPending = 2 * Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Creates a loader for comma-separated files with a header row.
+	 */
+	public RecipeCsvLoader() {
+		this(',', true);
+	}
+
+	/**
+	 * Creates a loader for files separated by the given character,
+	 * such as '\t' for TSV.
+	 * @param delimiter
+	 * @param header   whether the first line is a header to skip
+	 */
+	public RecipeCsvLoader(char delimiter, boolean header) {
+		if (delimiter == '\n' || delimiter == '\r') {
+			throw new IllegalArgumentException("Invalid delimiter");
+		}
+		this.delimiter = delimiter;
+		this.header = header;
+	}
+
+	/**
+	 * Imports every row of the file into the book.
+	 * @param file
+	 * @param book
+	 * @return RecipeImportReport
+	 * @throws IOException
+	 */
+	public RecipeImportReport load(Path file, RecipeBook book) throws IOException {
+		Deque<CompletableFuture<Chunk>> pending = new ArrayDeque<>();
+		long[] totals = new long[2];
+		List<RecipeImportReport.RowError> errors = new ArrayList<>();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+			byte[] line = new byte[256];
+			int lineLength = 0;
+			long lineNumber = 0;
+			List<String> rows = new ArrayList<>(CHUNK_ROWS);
+			long firstLine = 1;
+			boolean eof = false;
+			while (!eof) {
+				buffer.clear();
+				eof = channel.read(buffer) < 0;
+				buffer.flip();
+				while (buffer.hasRemaining() || (eof && lineLength > 0)) {
+					byte b = buffer.hasRemaining() ? buffer.get() : (byte) '\n';
+					if (b != '\n') {
+						if (lineLength == line.length) {
+							line = Arrays.copyOf(line, line.length * 2);
+						}
+						line[lineLength++] = b;
+						continue;
+					}
+					lineNumber++;
+					if (lineLength > 0 && line[lineLength - 1] == '\r') {
+						lineLength--;
+					}
+					if (rows.isEmpty()) {
+						firstLine = lineNumber;
+					}
+					rows.add(new String(line, 0, lineLength, StandardCharsets.UTF_8));
+					lineLength = 0;
+					if (rows.size() == CHUNK_ROWS) {
+						submit(pending, rows, firstLine, book, totals, errors);
+						rows = new ArrayList<>(CHUNK_ROWS);
+					}
+				}
+			}
+			if (!rows.isEmpty()) {
+				submit(pending, rows, firstLine, book, totals, errors);
+			}
+			while (!pending.isEmpty()) {
+				drain(pending.removeFirst(), book, totals, errors);
+			}
+		} finally {
+			pending.forEach(f -> f.cancel(false));
+		}
+		return new RecipeImportReport(totals[0], totals[1], errors);
+	}
+
+	private void submit(Deque<CompletableFuture<Chunk>> pending, List<String> rows, long firstLine,
+			RecipeBook book, long[] totals, List<RecipeImportReport.RowError> errors) {
+		pending.addLast(CompletableFuture.supplyAsync(() -> parse(rows, firstLine)));
+		while (pending.size() > maxPending) {
+			drain(pending.removeFirst(), book, totals, errors);
+		}
+	}
+
+	private static void drain(CompletableFuture<Chunk> future, RecipeBook book, long[] totals,
+			List<RecipeImportReport.RowError> errors) {
+		Chunk chunk = future.join();
+		totals[0] += chunk.rows;
+		totals[1] += book.addRecipes(chunk.recipes);
+		errors.addAll(chunk.errors);
+	}
+
+	private Chunk parse(List<String> lines, long firstLine) {
+		Chunk chunk = new Chunk(lines.size());
+		String[] fields = new String[FIELDS];
+		for (int i = 0; i < lines.size(); i++) {
+			long lineNumber = firstLine + i;
+			String line = lines.get(i);
+			if (line.isBlank() || (header && lineNumber == 1)) {
+				continue;
+			}
+			chunk.rows++;
+			int count = split(line, fields);
+			if (count != FIELDS) {
+				chunk.errors.add(new RecipeImportReport.RowError(lineNumber,
+						"Expected " + FIELDS + " fields but found " + count));
+				continue;
+			}
+			Recipe r = new Recipe();
+			r.setName(fields[0]);
+			RecipeErrorCode error = !r.trySetPrice(fields[1]) ? RecipeErrorCode.PRICE
+					: !r.trySetAmtCoffee(fields[2]) ? RecipeErrorCode.COFFEE
+					: !r.trySetAmtMilk(fields[3]) ? RecipeErrorCode.MILK
+					: !r.trySetAmtSugar(fields[4]) ? RecipeErrorCode.SUGAR
+					: !r.trySetAmtChocolate(fields[5]) ? RecipeErrorCode.CHOCOLATE
+					: null;
+			if (error == null) {
+				chunk.recipes.add(r);
+			} else {
+				chunk.errors.add(new RecipeImportReport.RowError(lineNumber, error.getMessage()));
+			}
+		}
+		return chunk;
+	}
+
+	/**
+	 * Splits a line into fields and returns how many fields it has.
+	 * Only the first FIELDS fields are stored, and only the name is
+	 * trimmed.
+	 */
+	private int split(String line, String[] fields) {
+		int count = 0;
+		int start = 0;
+		while (true) {
+			int end = line.indexOf(delimiter, start);
+			if (end < 0) {
+				end = line.length();
+			}
+			if (count < FIELDS) {
+				String field = line.substring(start, end);
+				fields[count] = count == 0 ? field.trim() : field;
+			}
+			count++;
+			if (end == line.length()) {
+				return count;
+			}
+			start = end + 1;
+		}
+	}
+
+	/**
+	 * The parsed rows of one chunk.
+	 */
+	private static class Chunk {
+		final List<Recipe> recipes;
+		final List<RecipeImportReport.RowError> errors = new ArrayList<>();
+		int rows;
+
+		Chunk(int capacity) {
+			recipes = new ArrayList<>(capacity);
+		}
+	}
+}
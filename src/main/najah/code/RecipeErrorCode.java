@@ -0,0 +1,85 @@
+package main.najah.code;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The ways recipe input can be rejected.  Each code keeps a count of
+ * its rejections and a preallocated RecipeException without a stack
+ * trace that validation can throw at no cost.
+ */
+public enum RecipeErrorCode {
+	PRICE(1, "Price must be a positive integer"),
+	COFFEE(2, "Units of coffee must be a positive integer"),
+	MILK(3, "Units of milk must be a positive integer"),
+	SUGAR(4, "Units of sugar must be a positive integer"),
+	CHOCOLATE(5, "Units of chocolate must be a positive integer");
+
+	/** Position of the checked value in a raw recipe row, after the name at 0 */
+	private final int field;
+	private final String message;
+	private final LongAdder rejections = new LongAdder();
+	private final RecipeException cached;
+
+	RecipeErrorCode(int field, String message) {
+		this.field = field;
+		this.message = message;
+		this.cached = new RecipeException(this, false);
+	}
+
+	/**
+	 * Returns the message of exceptions with this code.
+	 * @return String
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * Returns the position of the checked value in a raw recipe row
+	 * of name, price, coffee, milk, sugar and chocolate.
+	 */
+	int getField() {
+		return field;
+	}
+
+	/**
+	 * Returns how many inputs have been rejected with this code.
+	 * @return long
+	 */
+	public long getRejectionCount() {
+		return rejections.sum();
+	}
+
+	/**
+	 * Sets the rejection count back to zero.
+	 */
+	public void resetRejectionCount() {
+		rejections.reset();
+	}
+
+	/**
+	 * Counts a rejection that is reported without an exception.
+	 */
+	void countRejection() {
+		rejections.increment();
+	}
+
+	/**
+	 * Counts several rejections reported without an exception.
+	 */
+	void countRejections(long count) {
+		if (count != 0) {
+			rejections.add(count);
+		}
+	}
+
+	/**
+	 * Counts a rejection and returns the exception to throw for it:
+	 * the shared stackless instance, or a new one with a full stack
+	 * trace while RecipeException.isFullStackTraces() is on.
+	 */
+	RecipeException reject() {
+		rejections.increment();
+		return RecipeException.isFullStackTraces() ? new RecipeException(this, true) : cached;
+	}
+}
@@ -4,8 +4,51 @@ public class RecipeException extends Exception {
 	
 private static final long serialVersionUID = 1L;
 
+	/** Whether validation builds a new exception with a stack trace for each rejection */
+	private static volatile boolean fullStackTraces = Boolean.getBoolean("najah.recipe.fullStackTraces");
+
+	private final RecipeErrorCode errorCode;
+
 	public RecipeException(String msg) {
 		super(msg);
+		this.errorCode = null;
+	}
+
+	/**
+	 * Creates an exception for a validation error.  Without a writable
+	 * stack trace the exception is immutable and can be shared.
+	 */
+	RecipeException(RecipeErrorCode errorCode, boolean writableStackTrace) {
+		super(errorCode.getMessage(), null, false, writableStackTrace);
+		this.errorCode = errorCode;
+	}
+
+	/**
+	 * Returns the code of a validation error and null for an
+	 * exception created from a message.
+	 * @return RecipeErrorCode
+	 */
+	public RecipeErrorCode getErrorCode() {
+		return errorCode;
+	}
+
+	/**
+	 * Returns true if validation errors carry a full stack trace.  Off by
+	 * default; the system property najah.recipe.fullStackTraces turns it
+	 * on at startup.
+	 * @return boolean
+	 */
+	public static boolean isFullStackTraces() {
+		return fullStackTraces;
+	}
+
+	/**
+	 * Turns full stack traces for validation errors on or off, for
+	 * debugging where a rejection came from.
+	 * @param enabled
+	 */
+	public static void setFullStackTraces(boolean enabled) {
+		fullStackTraces = enabled;
 	}
 
 }
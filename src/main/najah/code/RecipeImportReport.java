@@ -0,0 +1,89 @@
+package main.najah.code;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a bulk recipe import.
+ */
+public class RecipeImportReport {
+
+	private final long rowsRead;
+	private final long recipesAdded;
+	private final List<RowError> errors;
+
+	RecipeImportReport(long rowsRead, long recipesAdded, List<RowError> errors) {
+		this.rowsRead = rowsRead;
+		this.recipesAdded = recipesAdded;
+		this.errors = Collections.unmodifiableList(errors);
+	}
+
+	/**
+	 * Returns the number of data rows read, not counting blank lines
+	 * or the header.
+	 * @return long
+	 */
+	public long getRowsRead() {
+		return rowsRead;
+	}
+
+	/**
+	 * Returns the number of recipes added to the book.
+	 * @return long
+	 */
+	public long getRecipesAdded() {
+		return recipesAdded;
+	}
+
+	/**
+	 * Returns the number of valid rows the book did not accept
+	 * because the name was taken or the book was full.
+	 * @return long
+	 */
+	public long getRecipesRejected() {
+		return rowsRead - errors.size() - recipesAdded;
+	}
+
+	/**
+	 * Returns the rows that could not be turned into a recipe,
+	 * in file order.
+	 * @return List
+	 */
+	public List<RowError> getErrors() {
+		return errors;
+	}
+
+	/**
+	 * A row that failed validation.
+	 */
+	public static class RowError {
+
+		private final long line;
+		private final String message;
+
+		RowError(long line, String message) {
+			this.line = line;
+			this.message = message;
+		}
+
+		/**
+		 * Returns the 1-based line number of the row.
+		 * @return long
+		 */
+		public long getLine() {
+			return line;
+		}
+
+		/**
+		 * Returns the reason the row was rejected.
+		 * @return String
+		 */
+		public String getMessage() {
+			return message;
+		}
+
+		public String toString() {
+			return "line " + line + ": " + message;
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package main.najah.code;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A filter over the recipes of an IndexedRecipeBook.  Conditions are
+ * combined with AND; conditions on the same field narrow each other.
+ */
+public class RecipeQuery {
+
+	private final IndexedRecipeBook book;
+	private final int[] min = new int[IndexedRecipeBook.FIELDS];
+	private final int[] max = new int[IndexedRecipeBook.FIELDS];
+
+	RecipeQuery(IndexedRecipeBook book) {
+		this.book = book;
+		Arrays.fill(min, Integer.MIN_VALUE);
+		Arrays.fill(max, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Keeps recipes priced between min and max inclusive.
+	 * @param min
+	 * @param max
+	 * @return RecipeQuery
+	 */
+	public RecipeQuery priceBetween(int min, int max) {
+		return between(IndexedRecipeBook.PRICE, min, max);
+	}
+
+	/**
+	 * Keeps recipes needing between min and max units of an
+	 * ingredient inclusive.
+	 * @param ingredient
+	 * @param min
+	 * @param max
+	 * @return RecipeQuery
+	 */
+	public RecipeQuery amountBetween(Ingredient ingredient, int min, int max) {
+		return between(1 + ingredient.ordinal(), min, max);
+	}
+
+	/**
+	 * Keeps recipes needing at most the given units of an ingredient.
+	 * @param ingredient
+	 * @param max
+	 * @return RecipeQuery
+	 */
+	public RecipeQuery amountAtMost(Ingredient ingredient, int max) {
+		return amountBetween(ingredient, Integer.MIN_VALUE, max);
+	}
+
+	/**
+	 * Keeps recipes needing at least the given units of an ingredient.
+	 * @param ingredient
+	 * @param min
+	 * @return RecipeQuery
+	 */
+	public RecipeQuery amountAtLeast(Ingredient ingredient, int min) {
+		return amountBetween(ingredient, min, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Keeps recipes that do not use an ingredient.
+	 * @param ingredient
+	 * @return RecipeQuery
+	 */
+	public RecipeQuery without(Ingredient ingredient) {
+		return amountAtMost(ingredient, 0);
+	}
+
+	/**
+	 * Returns the matching recipes in slot order.  Slots emptied by
+	 * deleteRecipe hold a default recipe and match like any other.
+	 * @return List
+	 */
+	public List<Recipe> list() {
+		return book.find(min, max);
+	}
+
+	private RecipeQuery between(int field, int lo, int hi) {
+		min[field] = Math.max(min[field], lo);
+		max[field] = Math.min(max[field], hi);
+		return this;
+	}
+}
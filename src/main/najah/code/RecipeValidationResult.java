@@ -0,0 +1,154 @@
+package main.najah.code;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * The outcome of validating a batch of recipe rows.
+ *
+ * Errors are kept as one bit mask per row, with bit
+ * RecipeErrorCode.ordinal() set for every invalid field, and parsed
+ * values in one array for the whole batch.  Objects are only created
+ * when a row is asked for its errors or its recipe.
+ */
+public class RecipeValidationResult {
+
+	private static final RecipeErrorCode[] CODES = RecipeErrorCode.values();
+
+	final String[] names;
+	final byte[] errors;
+	/** Parsed values, CODES.length per row, indexed by RecipeErrorCode.ordinal() */
+	final int[] values;
+
+	RecipeValidationResult(int rows) {
+		this.names = new String[rows];
+		this.errors = new byte[rows];
+		this.values = new int[rows * CODES.length];
+	}
+
+	/**
+	 * Returns the number of rows validated.
+	 * @return int
+	 */
+	public int size() {
+		return errors.length;
+	}
+
+	/**
+	 * Returns the number of rows with at least one invalid field.
+	 * @return int
+	 */
+	public int getInvalidCount() {
+		int invalid = 0;
+		for (byte mask : errors) {
+			if (mask != 0) {
+				invalid++;
+			}
+		}
+		return invalid;
+	}
+
+	/**
+	 * Returns true if every field of the row is valid.
+	 * @param row
+	 * @return boolean
+	 */
+	public boolean isValid(int row) {
+		return errors[row] == 0;
+	}
+
+	/**
+	 * Returns true if the row failed the check for the given code.
+	 * @param row
+	 * @param code
+	 * @return boolean
+	 */
+	public boolean hasError(int row, RecipeErrorCode code) {
+		return (errors[row] & 1 << code.ordinal()) != 0;
+	}
+
+	/**
+	 * Returns the bit mask of the row's errors.
+	 * @param row
+	 * @return int
+	 */
+	public int getErrorMask(int row) {
+		return errors[row];
+	}
+
+	/**
+	 * Returns the codes of the row's invalid fields.
+	 * @param row
+	 * @return EnumSet
+	 */
+	public EnumSet<RecipeErrorCode> getErrorCodes(int row) {
+		EnumSet<RecipeErrorCode> codes = EnumSet.noneOf(RecipeErrorCode.class);
+		for (RecipeErrorCode code : CODES) {
+			if (hasError(row, code)) {
+				codes.add(code);
+			}
+		}
+		return codes;
+	}
+
+	/**
+	 * Returns the messages of the row's invalid fields, in field order.
+	 * @param row
+	 * @return List
+	 */
+	public List<String> getMessages(int row) {
+		List<RecipeErrorCode> codes = new ArrayList<>(getErrorCodes(row));
+		codes.sort(Comparator.comparingInt(RecipeErrorCode::getField));
+		List<String> messages = new ArrayList<>();
+		for (RecipeErrorCode code : codes) {
+			messages.add(code.getMessage());
+		}
+		return messages;
+	}
+
+	/**
+	 * Returns the indices of the invalid rows, in order.
+	 * @return int[]
+	 */
+	public int[] getInvalidRows() {
+		int[] rows = new int[getInvalidCount()];
+		int n = 0;
+		for (int row = 0; row < errors.length; row++) {
+			if (errors[row] != 0) {
+				rows[n++] = row;
+			}
+		}
+		return rows;
+	}
+
+	/**
+	 * Returns a new Recipe for a valid row and null for an invalid one.
+	 * @param row
+	 * @return Recipe
+	 */
+	public Recipe getRecipe(int row) {
+		if (errors[row] != 0) {
+			return null;
+		}
+		int base = row * CODES.length;
+		return new Recipe(names[row], values[base + RecipeErrorCode.PRICE.ordinal()],
+				values[base + RecipeErrorCode.COFFEE.ordinal()], values[base + RecipeErrorCode.MILK.ordinal()],
+				values[base + RecipeErrorCode.SUGAR.ordinal()], values[base + RecipeErrorCode.CHOCOLATE.ordinal()]);
+	}
+
+	/**
+	 * Returns a new Recipe for every valid row, in row order.
+	 * @return List
+	 */
+	public List<Recipe> getValidRecipes() {
+		List<Recipe> recipes = new ArrayList<>(errors.length - getInvalidCount());
+		for (int row = 0; row < errors.length; row++) {
+			if (errors[row] == 0) {
+				recipes.add(getRecipe(row));
+			}
+		}
+		return recipes;
+	}
+}
@@ -0,0 +1,44 @@
+package main.najah.test;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Timing for the main methods of the *Benchmark classes.  Benchmarks
+ * are run by hand, not with the unit tests, for example
+ * java -cp bin main.najah.test.RecipeCodecBenchmark
+ */
+final class Benchmarks {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int TIMED_ROUNDS = 10;
+
+    /** Receives every result so the JIT cannot drop the work */
+    static volatile long sink;
+
+    private Benchmarks() {
+    }
+
+    /**
+     * Runs the body for some warm-up rounds and returns the fastest of
+     * the timed rounds in milliseconds.
+     */
+    static double bestMillis(LongSupplier body) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += body.getAsLong();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < TIMED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            sink += body.getAsLong();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e6;
+    }
+
+    /**
+     * Prints a timing and its speed-up over the baseline.
+     */
+    static void report(String name, double millis, double baselineMillis) {
+        System.out.printf("%-36s %10.3f ms %8.2fx%n", name, millis, baselineMillis / millis);
+    }
+}
@@ -0,0 +1,31 @@
+package main.najah.test;
+
+import main.najah.code.Calculator;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Compares Calculator.add(int...), the scalar int loop, with the bulk
+ * sums over arrays and buffers.  Not a unit test.
+ */
+public class BulkSumBenchmark {
+
+    public static void main(String[] args) {
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+        int[] values = new int[length];
+        Arrays.fill(values, 100);
+        IntBuffer direct = ByteBuffer.allocateDirect(4 * length).order(ByteOrder.nativeOrder()).asIntBuffer();
+        direct.put(values).flip();
+        Calculator serial = new Calculator(Integer.MAX_VALUE);
+        Calculator parallel = new Calculator();
+
+        double add = Benchmarks.bestMillis(() -> serial.add(values));
+        Benchmarks.report("add(int...)", add, add);
+        Benchmarks.report("sum(int[]), one thread", Benchmarks.bestMillis(() -> serial.sum(values)), add);
+        Benchmarks.report("sum(int[]), fork-join", Benchmarks.bestMillis(() -> parallel.sum(values)), add);
+        Benchmarks.report("sum(IntBuffer), direct", Benchmarks.bestMillis(() -> parallel.sum(direct)), add);
+    }
+}
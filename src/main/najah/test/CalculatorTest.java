@@ -7,6 +7,12 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import main.najah.code.Calculator;
 
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
 @TestMethodOrder(OrderAnnotation.class)
 @DisplayName("Calculator Tests")
 public class CalculatorTest {
@@ -92,6 +98,114 @@ public class CalculatorTest {
         assertEquals(3628800, calc.factorial(10)); // Fixed expected value
     }
 
+    @ParameterizedTest
+    @Order(8)
+    @DisplayName("Test long factorial matches the exact value")
+    @ValueSource(ints = {0, 1, 5, 13, 20})
+    void testFactorialLong(int n) {
+        long expected = 1;
+        for (int i = 2; i <= n; i++) expected *= i;
+        assertEquals(expected, calc.factorialLong(n));
+        assertEquals(BigInteger.valueOf(expected), calc.factorialBig(n));
+    }
+
+    @Test
+    @Order(9)
+    @DisplayName("Test long factorial overflow and negative input")
+    void testFactorialLongErrors() {
+        assertEquals(2432902008176640000L, calc.factorialLong(20));
+        Exception e = assertThrows(ArithmeticException.class, () -> calc.factorialLong(21));
+        assertEquals("Factorial overflows a long", e.getMessage());
+        assertThrows(ArithmeticException.class, () -> calc.factorialLong(Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> calc.factorialLong(-1));
+        assertThrows(IllegalArgumentException.class, () -> calc.factorialBig(-1));
+    }
+
+    @ParameterizedTest
+    @Order(10)
+    @DisplayName("Test big factorial matches a plain running product")
+    @ValueSource(ints = {21, 25, 100, 1000, 12345})
+    void testFactorialBig(int n) {
+        BigInteger expected = BigInteger.ONE;
+        for (int i = 2; i <= n; i++) expected = expected.multiply(BigInteger.valueOf(i));
+        assertEquals(expected, calc.factorialBig(n));
+        assertEquals(expected, calc.factorialBig(n));
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("Test big factorial of a large number")
+    void testFactorialBigLarge() {
+        BigInteger result = calc.factorialBig(100_000);
+        assertEquals(1_516_705, result.bitLength());
+        assertEquals(99_994, result.getLowestSetBit());
+    }
+
+    @ParameterizedTest
+    @Order(12)
+    @DisplayName("Test bulk int sums match a plain loop, sequential and parallel")
+    @ValueSource(ints = {0, 1, 3, 1000, 100_003})
+    void testBulkIntSum(int length) {
+        int[] values = new Random(length).ints(length).toArray();
+        long expected = 0;
+        for (int v : values) expected += v;
+        Calculator parallel = new Calculator(1);
+        IntBuffer direct = ByteBuffer.allocateDirect(4 * length).asIntBuffer().put(values).flip();
+        long expectedAll = expected;
+        assertAll("Sums",
+            () -> assertEquals(expectedAll, calc.sum(values)),
+            () -> assertEquals(expectedAll, parallel.sum(values)),
+            () -> assertEquals(expectedAll, calc.sum(IntBuffer.wrap(values))),
+            () -> assertEquals(expectedAll, parallel.sum(direct)),
+            () -> assertEquals(0, direct.position())
+        );
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("Test bulk sums of ranges and buffer slices")
+    void testBulkSumRanges() {
+        int[] values = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, 5, -7};
+        IntBuffer slice = IntBuffer.wrap(values, 1, 3).slice();
+        assertAll("Ranges",
+            () -> assertEquals(3L * Integer.MAX_VALUE, calc.sum(values, 0, 3)),
+            () -> assertEquals(-2, calc.sum(values, 3, 5)),
+            () -> assertEquals(0, calc.sum(values, 2, 2)),
+            () -> assertEquals(2L * Integer.MAX_VALUE + 5, calc.sum(slice)),
+            () -> assertThrows(IndexOutOfBoundsException.class, () -> calc.sum(values, 2, 6)),
+            () -> assertThrows(IllegalArgumentException.class, () -> new Calculator(0))
+        );
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("Test exact long sums only fail when the total overflows")
+    void testSumExact() {
+        long[] recovers = {Long.MAX_VALUE, 1, -1, Long.MIN_VALUE, Long.MIN_VALUE, Long.MAX_VALUE, 2};
+        long[] overflows = {Long.MAX_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, 2};
+        long[] many = new long[50_000];
+        Arrays.fill(many, Long.MAX_VALUE / 40_000);
+        Calculator parallel = new Calculator(2);
+        assertAll("Exact",
+            () -> assertEquals(0, calc.sumExact(recovers)),
+            () -> assertEquals(0, parallel.sumExact(recovers)),
+            () -> assertEquals(Long.MAX_VALUE, calc.sumExact(recovers, 0, 1)),
+            () -> assertThrows(ArithmeticException.class, () -> calc.sumExact(overflows)),
+            () -> assertThrows(ArithmeticException.class, () -> parallel.sumExact(overflows)),
+            () -> assertThrows(ArithmeticException.class, () -> parallel.sumExact(many)),
+            () -> assertEquals(39_999 * (Long.MAX_VALUE / 40_000), parallel.sumExact(many, 1, 40_000))
+        );
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("Test bulk sum of a large array")
+    void testBulkSumLarge() {
+        int[] values = new int[20_000_000];
+        Arrays.fill(values, 1_000);
+        assertEquals(20_000_000_000L, calc.sum(values));
+    }
+
     @AfterEach
     void teardown() {
         System.out.println("Test case execution complete");
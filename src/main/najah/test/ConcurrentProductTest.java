@@ -0,0 +1,144 @@
+package main.najah.test;
+
+import main.najah.code.ConcurrentProduct;
+import main.najah.code.Money;
+import main.najah.code.Product;
+import main.najah.code.ProductCatalog;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ConcurrentProduct Tests")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ConcurrentProductTest {
+
+    ConcurrentProduct p;
+
+    @BeforeEach
+    void setUp() {
+        p = new ConcurrentProduct("Coffee", 80);
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Test it behaves like Product")
+    void testLikeProduct() {
+        Product plain = new Product("Coffee", 80);
+        plain.applyDiscount(12.5);
+        p.applyDiscount(12.5);
+        assertAll("Same values",
+            () -> assertEquals(plain.getName(), p.getName()),
+            () -> assertEquals(plain.getPrice(), p.getPrice()),
+            () -> assertEquals(plain.getDiscount(), p.getDiscount()),
+            () -> assertEquals(plain.getFinalPrice(), p.getFinalPrice()),
+            () -> assertEquals(Money.ofMinor(7000), p.getFinalPriceMoney()),
+            () -> assertEquals(1250, p.getDiscountBasisPoints()),
+            () -> assertEquals(1, p.snapshot().getVersion())
+        );
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentProduct("Invalid", -1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {-1, 50.5, 100})
+    @Order(2)
+    @DisplayName("Test invalid discounts are rejected by every update method")
+    void testInvalidDiscount(double discount) {
+        ConcurrentProduct.Snapshot before = p.snapshot();
+        Exception applied = assertThrows(IllegalArgumentException.class, () -> p.applyDiscount(discount));
+        Exception swapped = assertThrows(IllegalArgumentException.class, () -> p.compareAndSetDiscount(before, discount));
+        Exception updated = assertThrows(IllegalArgumentException.class, () -> p.updateDiscount(d -> discount));
+        assertAll("Rejected",
+            () -> assertEquals("Invalid discount", applied.getMessage()),
+            () -> assertEquals("Invalid discount", swapped.getMessage()),
+            () -> assertEquals("Invalid discount", updated.getMessage()),
+            () -> assertSame(before, p.snapshot())
+        );
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Test compare-and-set fails on a stale snapshot")
+    void testCompareAndSet() {
+        ConcurrentProduct.Snapshot first = p.snapshot();
+        assertTrue(p.compareAndSetDiscount(first, 10));
+        assertFalse(p.compareAndSetDiscount(first, 20));
+        ConcurrentProduct.Snapshot second = p.snapshot();
+        assertAll("Snapshots",
+            () -> assertEquals(0, first.getDiscount()),
+            () -> assertEquals(80, first.getFinalPrice()),
+            () -> assertEquals(10, second.getDiscount()),
+            () -> assertEquals(72, second.getFinalPrice(), 1e-9),
+            () -> assertEquals(1, second.getVersion())
+        );
+        assertEquals(20, p.updateDiscount(d -> d * 2).getDiscount());
+        assertEquals(2, p.snapshot().getVersion());
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Test concurrent increments through updateDiscount are not lost")
+    void testNoLostUpdates() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10; i++) {
+                    p.updateDiscount(d -> d + 1);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40, p.getDiscount());
+        assertEquals(40, p.snapshot().getVersion());
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Test readers never see a torn price and discount")
+    void testTearFreeReads() throws InterruptedException {
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger torn = new AtomicInteger();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; !done.get(); i++) {
+                p.applyDiscount(i % 2 == 0 ? 0 : 50);
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 2_000_000; i++) {
+                ConcurrentProduct.Snapshot s = p.snapshot();
+                double finalPrice = p.getFinalPrice();
+                if (s.getFinalPrice() != s.getPrice() * (1 - s.getDiscount() / 100)
+                    || (finalPrice != 80 && finalPrice != 40)) {
+                    torn.incrementAndGet();
+                }
+            }
+        } finally {
+            done.set(true);
+            writer.join();
+        }
+        assertEquals(0, torn.get());
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Test a catalog copies a consistent snapshot")
+    void testCatalogCopy() {
+        p.applyDiscount(25);
+        ProductCatalog catalog = new ProductCatalog();
+        assertTrue(catalog.add(p));
+        assertEquals(60, catalog.get("Coffee").getFinalPrice());
+        assertEquals(List.of("Coffee"),
+            catalog.findByFinalPrice(60, 60).stream().map(Product::getName).toList());
+    }
+}
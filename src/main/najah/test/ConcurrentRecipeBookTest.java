@@ -0,0 +1,207 @@
+package main.najah.test;
+
+import main.najah.code.ConcurrentRecipeBook;
+import main.najah.code.Recipe;
+import main.najah.code.RecipeBookSnapshot;
+import main.najah.code.RecipeBookTransaction;
+import main.najah.code.RecipeException;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static main.najah.test.TestRecipes.recipe;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ConcurrentRecipeBook Test Suite")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ConcurrentRecipeBookTest {
+
+    ConcurrentRecipeBook recipeBook;
+    Recipe sampleRecipe;
+
+    @BeforeEach
+    void setUp() throws RecipeException {
+        recipeBook = new ConcurrentRecipeBook();
+        sampleRecipe = recipe("Coffee", 50, 3, 2, 1, 0);
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Test add, duplicate and full book behave like RecipeBook")
+    void testAddRecipe() throws RecipeException {
+        assertTrue(recipeBook.addRecipe(sampleRecipe));
+        assertFalse(recipeBook.addRecipe(sampleRecipe));
+        for (int i = 1; i < 4; i++) {
+            assertTrue(recipeBook.addRecipe(recipe("Recipe" + i, 50, 3, 2, 1, 0)));
+        }
+        assertFalse(recipeBook.addRecipe(recipe("Extra", 50, 3, 2, 1, 0)));
+        assertEquals(4, recipeBook.getRecipes().length);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Test getRecipes() hands out a copy")
+    void testGetRecipesIsCopy() {
+        recipeBook.addRecipe(sampleRecipe);
+        Recipe[] recipes = recipeBook.getRecipes();
+        recipes[0] = null;
+        assertSame(sampleRecipe, recipeBook.getRecipes()[0]);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Test snapshots do not change after later writes")
+    void testSnapshotIsStable() throws RecipeException {
+        recipeBook.addRecipe(sampleRecipe);
+        RecipeBookSnapshot before = recipeBook.snapshot();
+        assertEquals("Coffee", recipeBook.editRecipe(0, recipe("Latte", 50, 3, 2, 1, 0)));
+        assertAll("Snapshot isolation",
+            () -> assertEquals("Coffee", before.getRecipe(0).getName()),
+            () -> assertSame(sampleRecipe, before.getRecipe("Coffee")),
+            () -> assertNull(recipeBook.getRecipe("Coffee")),
+            () -> assertEquals("", recipeBook.getRecipes()[0].getName())
+        );
+    }
+
+    @ParameterizedTest
+    @Order(4)
+    @ValueSource(ints = {1, 2, 3})
+    @DisplayName("Test deleting and editing empty slots returns null")
+    void testEmptySlots(int index) throws RecipeException {
+        recipeBook.addRecipe(sampleRecipe);
+        assertNull(recipeBook.deleteRecipe(index));
+        assertNull(recipeBook.editRecipe(index, recipe("Mocha", 50, 3, 2, 1, 0)));
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Test growable book keeps its name index")
+    void testGrowable() throws RecipeException {
+        ConcurrentRecipeBook growable = new ConcurrentRecipeBook(true);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(growable.addRecipe(recipe("Recipe" + i, 50, 3, 2, 1, 0)));
+        }
+        assertEquals("Recipe42", growable.deleteRecipe(42));
+        assertAll("Growable book",
+            () -> assertEquals(100, growable.size()),
+            () -> assertNull(growable.getRecipe("Recipe42")),
+            () -> assertEquals(99, growable.snapshot().indexOf("Recipe99"))
+        );
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Test readers run alongside a writer")
+    void testConcurrentReaders() throws Exception {
+        ConcurrentRecipeBook growable = new ConcurrentRecipeBook(true);
+        Thread writer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 500; i++) {
+                    growable.addRecipe(recipe("Recipe" + i, 50, 3, 2, 1, 0));
+                }
+            } catch (RecipeException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            RecipeBookSnapshot s = growable.snapshot();
+            for (int i = 0; i < s.size(); i++) {
+                assertNotNull(s.getRecipe(i));
+            }
+        }
+        writer.join();
+        assertEquals(500, growable.size());
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Test a transaction publishes all changes as one version")
+    void testTransactionCommit() throws RecipeException {
+        recipeBook.addRecipe(sampleRecipe);
+        long before = recipeBook.getVersion();
+        RecipeBookSnapshot old = recipeBook.snapshot();
+        Recipe latte = recipe("Latte", 50, 3, 2, 1, 0);
+        boolean committed = recipeBook.beginTransaction()
+            .addRecipe(recipe("Mocha", 50, 3, 2, 1, 0))
+            .addRecipe(recipe("Tea", 50, 3, 2, 1, 0))
+            .editRecipe(0, latte)
+            .deleteRecipe(1)
+            .commit();
+        assertAll("Committed transaction",
+            () -> assertTrue(committed),
+            () -> assertEquals(before + 1, recipeBook.getVersion()),
+            () -> assertEquals(3, recipeBook.size()),
+            () -> assertEquals("", latte.getName()),
+            () -> assertNull(recipeBook.getRecipe("Mocha")),
+            () -> assertNotNull(recipeBook.getRecipe("Tea")),
+            () -> assertEquals(1, old.size()),
+            () -> assertEquals(before, old.getVersion())
+        );
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("Test a failing operation aborts the whole transaction")
+    void testTransactionAbort() throws RecipeException {
+        recipeBook.addRecipe(sampleRecipe);
+        long before = recipeBook.getVersion();
+        Recipe latte = recipe("Latte", 50, 3, 2, 1, 0);
+        RecipeBookTransaction tx = recipeBook.beginTransaction()
+            .editRecipe(0, latte)
+            .deleteRecipe(3);
+        assertFalse(tx.commit());
+        assertAll("Aborted transaction",
+            () -> assertEquals(before, recipeBook.getVersion()),
+            () -> assertSame(sampleRecipe, recipeBook.getRecipe("Coffee")),
+            () -> assertEquals("Latte", latte.getName())
+        );
+    }
+
+    @Test
+    @Order(9)
+    @DisplayName("Test commitIfUnchanged detects a concurrent change")
+    void testCommitIfUnchanged() throws RecipeException {
+        RecipeBookTransaction tx = recipeBook.beginTransaction().addRecipe(recipe("Mocha", 50, 3, 2, 1, 0));
+        recipeBook.addRecipe(sampleRecipe);
+        assertFalse(tx.commitIfUnchanged());
+        assertTrue(tx.commit());
+        assertThrows(IllegalStateException.class, tx::commit);
+        assertEquals(2, recipeBook.size());
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("Test readers never see a half-applied rollout")
+    void testRolloutIsAtomic() throws Exception {
+        ConcurrentRecipeBook menu = new ConcurrentRecipeBook(true);
+        for (int i = 0; i < 50; i++) {
+            menu.addRecipe(recipe("Recipe" + i, 50, 3, 2, 1, 0));
+        }
+        Thread writer = new Thread(() -> {
+            try {
+                for (int round = 1; round <= 200; round++) {
+                    RecipeBookTransaction tx = menu.beginTransaction();
+                    for (int i = 0; i < 50; i++) {
+                        Recipe r = recipe("Recipe" + i, 50, 3, 2, 1, 0);
+                        r.setPrice(String.valueOf(round));
+                        tx.editRecipe(i, r);
+                    }
+                    assertTrue(tx.commit());
+                }
+            } catch (RecipeException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            RecipeBookSnapshot s = menu.snapshot();
+            int price = s.getRecipe(0).getPrice();
+            for (int i = 1; i < 50; i++) {
+                assertEquals(price, s.getRecipe(i).getPrice());
+            }
+        }
+        writer.join();
+        assertEquals(200, menu.snapshot().getRecipe(49).getPrice());
+    }
+}
@@ -0,0 +1,148 @@
+package main.najah.test;
+
+import main.najah.code.Calculator;
+import main.najah.code.Expression;
+import main.najah.code.ExpressionCompiler;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ExpressionCompiler Tests")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ExpressionCompilerTest {
+
+    ExpressionCompiler compiler;
+    Calculator calc;
+
+    @BeforeEach
+    void setUp() {
+        compiler = new ExpressionCompiler(4);
+        calc = new Calculator();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Test operators follow the usual precedence")
+    void testPrecedence() {
+        assertAll("Constants",
+            () -> assertEquals(14, compiler.compile("2 + 3 * 4").evaluate()),
+            () -> assertEquals(20, compiler.compile("(2 + 3) * 4").evaluate()),
+            () -> assertEquals(-4, compiler.compile("10 / 3 - 7 + 0").evaluate()),
+            () -> assertEquals(-6, compiler.compile("-3!").evaluate()),
+            () -> assertEquals(720, compiler.compile("3!!").evaluate()),
+            () -> assertEquals(2, compiler.compile("8 - 4 - 2").evaluate()),
+            () -> assertEquals(17, compiler.compile("add(1, 2, 2 * 7)").evaluate()),
+            () -> assertEquals(0, compiler.compile("add()").evaluate())
+        );
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Test variables are bound to slots in order of appearance")
+    void testVariables() {
+        Expression e = compiler.compile("divide(price * qty, n) + factorial(k) - price");
+        int[] values = new int[4];
+        values[e.slotOf("price")] = 30;
+        values[e.slotOf("qty")] = 4;
+        values[e.slotOf("n")] = 3;
+        values[e.slotOf("k")] = 5;
+        assertAll("Variables",
+            () -> assertEquals(List.of("price", "qty", "n", "k"), e.getVariables()),
+            () -> assertEquals(-1, e.slotOf("missing")),
+            () -> assertEquals(40 + 120 - 30, e.evaluate(values)),
+            () -> assertThrows(IllegalArgumentException.class, () -> e.evaluate(1, 2))
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-5, -1, 0, 1, 7, 13, 40})
+    @Order(3)
+    @DisplayName("Test division and factorial behave like Calculator")
+    void testMatchesCalculator(int x) {
+        Expression divide = compiler.compile("100 / x");
+        Expression factorial = compiler.compile("x!");
+        if (x == 0) {
+            ArithmeticException expected = assertThrows(ArithmeticException.class, () -> calc.divide(100, x));
+            ArithmeticException actual = assertThrows(ArithmeticException.class, () -> divide.evaluate(x));
+            assertEquals(expected.getMessage(), actual.getMessage());
+        } else {
+            assertEquals(calc.divide(100, x), divide.evaluate(x));
+        }
+        if (x < 0) {
+            IllegalArgumentException expected = assertThrows(IllegalArgumentException.class, () -> calc.factorial(x));
+            IllegalArgumentException actual = assertThrows(IllegalArgumentException.class, () -> factorial.evaluate(x));
+            assertEquals(expected.getMessage(), actual.getMessage());
+        } else {
+            assertEquals(calc.factorial(x), factorial.evaluate(x));
+        }
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Test constant errors are raised when evaluated, not when compiled")
+    void testConstantErrorsDeferred() {
+        Expression divide = assertDoesNotThrow(() -> compiler.compile("1 / 0"));
+        Expression factorial = assertDoesNotThrow(() -> compiler.compile("(0 - 2)!"));
+        assertThrows(ArithmeticException.class, divide::evaluate);
+        assertThrows(IllegalArgumentException.class, factorial::evaluate);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "1 +", "(1", "1 2", "foo(1)", "divide(1)", "99999999999", "2 $ 3"})
+    @Order(5)
+    @DisplayName("Test invalid source is rejected")
+    void testInvalidSource(String source) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> compiler.compile(source));
+        assertTrue(e.getMessage().contains("at position"));
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Test compiled expressions are cached by source text")
+    void testCache() {
+        Expression first = compiler.compile("a + 1");
+        assertSame(first, compiler.compile("a + 1"));
+        for (int i = 0; i < 4; i++) {
+            compiler.compile("a + " + (i + 2));
+        }
+        assertEquals(4, compiler.getCacheSize());
+        assertNotSame(first, compiler.compile("a + 1"));
+        assertThrows(IllegalArgumentException.class, () -> new ExpressionCompiler(0));
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Test evaluating a compiled expression many times")
+    void testEvaluationRepeated() {
+        Expression e = compiler.compile("(price * qty - discount) / 100 + factorial(3)");
+        int[] values = new int[3];
+        long total = 0;
+        for (int i = 0; i < 5_000_000; i++) {
+            values[0] = i & 1023;
+            values[1] = 3;
+            values[2] = 7;
+            total += e.evaluate(values);
+        }
+        assertTrue(total > 0);
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("Test the smallest int literal compiles with its sign")
+    void testMinValueLiteral() {
+        assertAll("Signed literals",
+            () -> assertEquals(Integer.MIN_VALUE, compiler.compile("-2147483648").evaluate()),
+            () -> assertEquals(Integer.MIN_VALUE, compiler.compile("- 2147483648 * 1").evaluate()),
+            () -> assertEquals(-2147483647, compiler.compile("-2147483647").evaluate()),
+            () -> assertEquals(5, compiler.compile("2 - -3").evaluate()),
+            () -> assertEquals(-6, compiler.compile("- 3 !").evaluate()),
+            () -> assertThrows(IllegalArgumentException.class, () -> compiler.compile("2147483648")),
+            () -> assertThrows(IllegalArgumentException.class, () -> compiler.compile("-2147483649")),
+            () -> assertThrows(IllegalArgumentException.class, () -> compiler.compile("-2147483648!"))
+        );
+    }
+}
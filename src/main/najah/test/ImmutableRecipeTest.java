@@ -0,0 +1,108 @@
+package main.najah.test;
+
+import main.najah.code.ImmutableRecipe;
+import main.najah.code.Recipe;
+import main.najah.code.RecipeErrorCode;
+import main.najah.code.RecipeException;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ImmutableRecipe Tests")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ImmutableRecipeTest {
+
+    ImmutableRecipe mocha;
+
+    @BeforeEach
+    void setUp() throws RecipeException {
+        mocha = ImmutableRecipe.builder()
+            .name("Mocha").price(50).amtCoffee("3").amtMilk(1).amtSugar(1).amtChocolate("2")
+            .build();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Test builder sets every field")
+    void testBuilder() {
+        assertAll("Mocha",
+            () -> assertEquals("Mocha", mocha.getName()),
+            () -> assertEquals(50, mocha.getPrice()),
+            () -> assertEquals(3, mocha.getAmtCoffee()),
+            () -> assertEquals(1, mocha.getAmtMilk()),
+            () -> assertEquals(1, mocha.getAmtSugar()),
+            () -> assertEquals(2, mocha.getAmtChocolate())
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"-1", "abc", "", "2147483648"})
+    @Order(2)
+    @DisplayName("Test build rejects invalid values with the Recipe setter errors")
+    void testBuildRejectsInvalid(String value) {
+        RecipeException price = assertThrows(RecipeException.class,
+            () -> ImmutableRecipe.builder().price(value).build());
+        RecipeException sugar = assertThrows(RecipeException.class,
+            () -> ImmutableRecipe.builder().amtSugar(value).build());
+        assertEquals(RecipeErrorCode.PRICE, price.getErrorCode());
+        assertEquals("Units of sugar must be a positive integer", sugar.getMessage());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Test conversion to and from Recipe keeps the values")
+    void testConversion() {
+        Recipe r = mocha.toRecipe();
+        r.setName("Changed");
+        assertAll("Conversion",
+            () -> assertEquals("Mocha", mocha.getName()),
+            () -> assertEquals(50, r.getPrice()),
+            () -> assertEquals(2, r.getAmtChocolate()),
+            () -> assertEquals(mocha, ImmutableRecipe.from(mocha.toRecipe())),
+            () -> assertEquals(mocha.toRecipe().hashCode(), mocha.hashCode())
+        );
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Test equality covers all fields and works as a hash key")
+    void testEquality() throws RecipeException {
+        ImmutableRecipe same = ImmutableRecipe.builder().name(new String("Mocha")).price(50).amtCoffee(3)
+            .amtMilk(1).amtSugar(1).amtChocolate(2).build();
+        ImmutableRecipe dearer = mocha.toBuilder().price(60).build();
+        Set<ImmutableRecipe> set = new HashSet<>();
+        set.add(mocha);
+        assertAll("Equality",
+            () -> assertEquals(mocha, same),
+            () -> assertTrue(set.contains(same)),
+            () -> assertNotEquals(mocha, dearer),
+            () -> assertEquals(mocha.hashCode(), dearer.hashCode())
+        );
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Test interned names share one String")
+    void testInternName() throws RecipeException {
+        ImmutableRecipe a = ImmutableRecipe.builder().name(new String("Latte")).internName(true).build();
+        ImmutableRecipe b = ImmutableRecipe.builder().name(new String("Latte")).internName(true).build();
+        ImmutableRecipe c = ImmutableRecipe.builder().name(new String("Latte")).build();
+        assertSame(a.getName(), b.getName());
+        assertNotSame(a.getName(), c.getName());
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Test the hash code stays the same across calls")
+    void testHashStable() {
+        int first = mocha.hashCode();
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(first, mocha.hashCode());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package main.najah.test;
+
+import main.najah.code.IndexedRecipeBook;
+import main.najah.code.Ingredient;
+import main.najah.code.Recipe;
+import main.najah.code.RecipeException;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static main.najah.test.TestRecipes.recipe;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IndexedRecipeBook Tests")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class IndexedRecipeBookTest {
+
+    IndexedRecipeBook book;
+
+    @BeforeEach
+    void setUp() throws RecipeException {
+        book = new IndexedRecipeBook(true);
+        book.addRecipe(recipe("Espresso", 30, 2, 0, 0, 0));
+        book.addRecipe(recipe("Latte", 50, 1, 3, 1, 0));
+        book.addRecipe(recipe("Mocha", 60, 1, 2, 1, 2));
+        book.addRecipe(recipe("Hot Chocolate", 40, 0, 2, 1, 1));
+    }
+
+    static List<String> names(List<Recipe> recipes) {
+        List<String> names = new ArrayList<>();
+        for (Recipe r : recipes) {
+            names.add(r.getName());
+        }
+        return names;
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Test price range and ingredient filters")
+    void testQueries() {
+        assertAll("Queries",
+            () -> assertEquals(List.of("Latte", "Hot Chocolate"), names(book.query().priceBetween(40, 50).list())),
+            () -> assertEquals(List.of("Espresso"), names(book.query().without(Ingredient.MILK).list())),
+            () -> assertEquals(List.of("Espresso", "Latte", "Hot Chocolate"),
+                names(book.query().amountAtMost(Ingredient.CHOCOLATE, 1).list())),
+            () -> assertEquals(List.of("Hot Chocolate"),
+                names(book.query().amountAtMost(Ingredient.CHOCOLATE, 1).amountAtLeast(Ingredient.MILK, 2)
+                    .priceBetween(0, 45).list())),
+            () -> assertTrue(book.query().priceBetween(50, 40).list().isEmpty()),
+            () -> assertEquals(4, book.query().list().size())
+        );
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Test indexes follow edit and delete")
+    void testIndexesFollowMutations() throws RecipeException {
+        assertEquals("Latte", book.editRecipe(1, recipe("Flat White", 45, 2, 0, 0, 0)));
+        assertEquals("Mocha", book.deleteRecipe(2));
+        assertAll("After mutations",
+            () -> assertTrue(book.query().priceBetween(50, 60).list().isEmpty()),
+            () -> assertEquals(List.of(45), book.query().priceBetween(45, 45).list().stream().map(Recipe::getPrice).toList()),
+            () -> assertEquals(3, book.query().without(Ingredient.MILK).list().size())
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 3})
+    @DisplayName("Test random queries agree with a full scan")
+    void testAgainstScan(long seed) throws RecipeException {
+        Random random = new Random(seed);
+        IndexedRecipeBook large = new IndexedRecipeBook(true);
+        for (int i = 0; i < 2000; i++) {
+            large.addRecipe(recipe("Recipe" + i, random.nextInt(100), random.nextInt(5),
+                random.nextInt(5), random.nextInt(5), random.nextInt(5)));
+        }
+        for (int i = 0; i < 200; i++) {
+            int slot = random.nextInt(2000);
+            if (random.nextBoolean()) {
+                large.deleteRecipe(slot);
+            } else {
+                large.editRecipe(slot, recipe("Edit" + i, random.nextInt(100), random.nextInt(5),
+                    random.nextInt(5), random.nextInt(5), random.nextInt(5)));
+            }
+        }
+        for (int q = 0; q < 50; q++) {
+            int lo = random.nextInt(100);
+            int hi = lo + random.nextInt(30);
+            int milk = random.nextInt(5);
+            List<Recipe> expected = new ArrayList<>();
+            for (Recipe r : large.getRecipes()) {
+                if (r != null && r.getPrice() >= lo && r.getPrice() <= hi && r.getAmtMilk() <= milk) {
+                    expected.add(r);
+                }
+            }
+            assertEquals(expected, large.query().priceBetween(lo, hi).amountAtMost(Ingredient.MILK, milk).list());
+        }
+    }
+}
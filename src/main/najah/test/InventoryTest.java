@@ -0,0 +1,166 @@
+package main.najah.test;
+
+import main.najah.code.Ingredient;
+import main.najah.code.Inventory;
+import main.najah.code.Recipe;
+import main.najah.code.RecipeBook;
+import main.najah.code.RecipeException;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static main.najah.test.TestRecipes.recipe;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Inventory Tests")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class InventoryTest {
+
+    Inventory inventory;
+    Recipe latte;
+
+    @BeforeEach
+    void setUp() throws RecipeException {
+        inventory = new Inventory(15, 15, 15, 15);
+        latte = recipe("Latte", 50, 3, 4, 1, 0);
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Test reserving takes every ingredient")
+    void testReserve() {
+        assertTrue(inventory.reserve(latte));
+        assertAll("Stock after one latte",
+            () -> assertEquals(12, inventory.getStock(Ingredient.COFFEE)),
+            () -> assertEquals(11, inventory.getStock(Ingredient.MILK)),
+            () -> assertEquals(14, inventory.getStock(Ingredient.SUGAR)),
+            () -> assertEquals(15, inventory.getStock(Ingredient.CHOCOLATE))
+        );
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Test a reservation that cannot be met takes nothing")
+    void testReserveAllOrNothing() {
+        assertTrue(inventory.reserve(latte, 3));
+        assertFalse(inventory.reserve(latte));
+        assertEquals(6, inventory.getStock(Ingredient.COFFEE));
+        assertEquals(3, inventory.getStock(Ingredient.MILK));
+        inventory.release(latte);
+        assertTrue(inventory.reserve(latte));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0})
+    @DisplayName("Test restock validation and empty restocks")
+    void testRestock(int units) {
+        if (units < 0) {
+            assertThrows(IllegalArgumentException.class, () -> inventory.restock(units, 0, 0, 0));
+        } else {
+            inventory.restock(units, units, units, units);
+        }
+        assertEquals(15, inventory.getStock(Ingredient.SUGAR));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Test large stock spans several stripes")
+    void testLargeStock() {
+        Inventory big = new Inventory();
+        big.restock(100_000, 100_000, 1, 0);
+        assertTrue(big.reserve(latte, 0));
+        assertFalse(big.reserve(latte, 2));
+        big.restock(0, 0, 1, 0);
+        // 80,000 units of milk cannot come from a single stripe
+        assertTrue(big.reserve(latte, 2));
+        assertEquals(100_000 - 6, big.getStock(Ingredient.COFFEE));
+        assertThrows(IllegalStateException.class, () -> big.restock(big.getCapacity(), 0, 0, 0));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Test makeable recipes follow the stock")
+    void testMakeableRecipes() throws RecipeException {
+        RecipeBook book = new RecipeBook();
+        book.addRecipe(latte);
+        book.addRecipe(recipe("Mocha", 50, 3, 1, 1, 20));
+        book.addRecipe(recipe("Espresso", 50, 15, 0, 0, 0));
+        List<String> names = new ArrayList<>();
+        inventory.getMakeableRecipes(book).forEach(r -> names.add(r.getName()));
+        assertEquals(List.of("Latte", "Espresso"), names);
+        inventory.reserve(latte);
+        assertFalse(inventory.canMake(book.getRecipe("Espresso")));
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Test concurrent orders never oversell")
+    void testConcurrentReservations() throws Exception {
+        Inventory shared = new Inventory();
+        shared.restock(30_000, 40_000, 10_000, 0);
+        AtomicInteger served = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    if (shared.reserve(latte)) {
+                        served.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(10_000, served.get());
+        assertEquals(0, shared.getStock(Ingredient.COFFEE));
+        assertEquals(0, shared.getStock(Ingredient.MILK));
+        assertEquals(0, shared.getStock(Ingredient.SUGAR));
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Test releasing into a full inventory fails instead of spinning")
+    void testReleaseWhenFull() {
+        Inventory full = new Inventory();
+        full.restock(full.getCapacity(), 0, 0, 0);
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> full.release(latte));
+        assertEquals("Inventory capacity exceeded", e.getMessage());
+        assertEquals(full.getCapacity(), full.getStock(Ingredient.COFFEE));
+        assertEquals(0, full.getStock(Ingredient.MILK));
+        assertEquals(16 * 0xFFFF, full.getCapacity());
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Test concurrent restocks never exceed the capacity")
+    void testConcurrentRestocks() throws Exception {
+        Inventory shared = new Inventory();
+        int share = shared.getCapacity() / 4 + 1;
+        AtomicInteger refused = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                try {
+                    shared.restock(share, 1, 0, 0);
+                } catch (IllegalStateException e) {
+                    refused.incrementAndGet();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread t : threads) {
+            t.join();
+        }
+        // A refused restock takes its units back out, so only whole restocks remain
+        int accepted = 4 - refused.get();
+        assertTrue(accepted <= 3);
+        assertEquals(accepted * share, shared.getStock(Ingredient.COFFEE));
+        assertEquals(accepted, shared.getStock(Ingredient.MILK));
+    }
+}
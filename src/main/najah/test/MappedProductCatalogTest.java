@@ -0,0 +1,184 @@
+package main.najah.test;
+
+import main.najah.code.MappedProductCatalog;
+import main.najah.code.Product;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MappedProductCatalog Tests")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class MappedProductCatalogTest {
+
+    @TempDir
+    Path dir;
+    Path file;
+
+    @BeforeEach
+    void setUp() {
+        file = dir.resolve("products.catalog");
+    }
+
+    static Product product(String name, double price, double discount) {
+        Product p = new Product(name, price);
+        p.applyDiscount(discount);
+        return p;
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Test products survive closing and reopening the catalog")
+    void testReopen() throws IOException {
+        try (MappedProductCatalog catalog = new MappedProductCatalog(file, 8)) {
+            assertTrue(catalog.add(product("Coffee", 10, 20)));
+            assertTrue(catalog.add(product("Café Latte", 18.5, 0)));
+            assertFalse(catalog.add(product("Coffee", 99, 0)));
+            assertTrue(catalog.applyDiscount("Café Latte", 50));
+        }
+        try (MappedProductCatalog catalog = new MappedProductCatalog(file, 1_000)) {
+            Product coffee = catalog.get("Coffee");
+            assertAll("Reopened catalog",
+                () -> assertEquals(8, catalog.bucketCount()),
+                () -> assertEquals(2, catalog.size()),
+                () -> assertEquals(10, coffee.getPrice()),
+                () -> assertEquals(8, coffee.getFinalPrice()),
+                () -> assertEquals(9.25, catalog.get("Café Latte").getFinalPrice()),
+                () -> assertNull(catalog.get("Tea")),
+                () -> assertFalse(catalog.applyDiscount("Tea", 10))
+            );
+            assertTrue(catalog.add(product("Tea", 4, 0)));
+            assertEquals(3, catalog.size());
+        }
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Test views read the file and see later discounts")
+    void testViews() throws IOException {
+        try (MappedProductCatalog catalog = new MappedProductCatalog(file, 4)) {
+            catalog.add(product("Mocha", 30, 0));
+            MappedProductCatalog.View view = catalog.view("Mocha");
+            Product copy = catalog.get("Mocha");
+            catalog.applyDiscount("Mocha", 10);
+            assertAll("View",
+                () -> assertEquals("Mocha", view.getName()),
+                () -> assertEquals(30, view.getPrice()),
+                () -> assertEquals(10, view.getDiscount()),
+                () -> assertEquals(27, view.getFinalPrice()),
+                () -> assertEquals(27, view.toProduct().getFinalPrice()),
+                () -> assertEquals(0, copy.getDiscount()),
+                () -> assertNull(catalog.view("Latte"))
+            );
+            Exception e = assertThrows(IllegalArgumentException.class, () -> catalog.applyDiscount("Mocha", 60));
+            assertEquals("Invalid discount", e.getMessage());
+        }
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Test appends grow the mapping and keep every chain intact")
+    void testGrowth() throws IOException {
+        try (MappedProductCatalog catalog = new MappedProductCatalog(file, 16)) {
+            MappedProductCatalog.View first = null;
+            for (int i = 0; i < 20_000; i++) {
+                assertTrue(catalog.add(product("Product " + i, i, i % 51)));
+                if (i == 0) {
+                    first = catalog.view("Product 0");
+                }
+            }
+            assertEquals("Product 0", first.getName());
+            assertEquals(20_000, catalog.size());
+        }
+        assertTrue(Files.size(file) > 20_000 * 28);
+        try (MappedProductCatalog catalog = new MappedProductCatalog(file, 16)) {
+            for (int i = 0; i < 20_000; i += 997) {
+                Product p = catalog.get("Product " + i);
+                assertEquals(i, p.getPrice());
+                assertEquals(i % 51, p.getDiscount());
+            }
+            assertTrue(catalog.contains("Product 19999"));
+            assertFalse(catalog.contains("Product 20000"));
+        }
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Test other files are rejected")
+    void testNotACatalog() throws IOException {
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20});
+        assertThrows(IOException.class, () -> new MappedProductCatalog(file, 8));
+        assertThrows(IllegalArgumentException.class, () -> new MappedProductCatalog(dir.resolve("other"), 0));
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Test reopening a large catalog finds its records")
+    void testReopenLarge() throws IOException {
+        try (MappedProductCatalog catalog = new MappedProductCatalog(file, 1 << 16)) {
+            for (int i = 0; i < 100_000; i++) {
+                catalog.add(product("P" + i, 100, 25));
+            }
+        }
+        try (MappedProductCatalog reopened = new MappedProductCatalog(file, 1)) {
+            assertEquals(1 << 16, reopened.bucketCount());
+            assertEquals(100_000, reopened.size());
+            assertEquals(75, reopened.get("P65432").getFinalPrice());
+            assertEquals(75, reopened.view("P99999").getFinalPrice());
+            assertNull(reopened.get("P100000"));
+        }
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Test truncated and corrupt files are rejected")
+    void testCorruptFiles() throws IOException {
+        try (MappedProductCatalog catalog = new MappedProductCatalog(file, 8)) {
+            catalog.add(product("Coffee", 10, 0));
+            catalog.add(product("Tea", 4, 0));
+        }
+        byte[] valid = Files.readAllBytes(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(60);
+        }
+        assertThrows(IOException.class, () -> new MappedProductCatalog(file, 8));
+        Files.write(file, valid);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, 1 << 30), 8);
+        }
+        assertThrows(IOException.class, () -> new MappedProductCatalog(file, 8));
+        Files.write(file, valid);
+        try (MappedProductCatalog catalog = new MappedProductCatalog(file, 8)) {
+            assertEquals(10, catalog.get("Coffee").getPrice());
+        }
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Test a closed catalog and its views reject calls")
+    void testClosed() throws IOException {
+        MappedProductCatalog catalog = new MappedProductCatalog(file, 8);
+        catalog.add(product("Coffee", 10, 0));
+        MappedProductCatalog.View view = catalog.view("Coffee");
+        catalog.close();
+        catalog.close();
+        assertAll("Closed catalog",
+            () -> assertThrows(IllegalStateException.class, () -> catalog.add(product("Tea", 4, 0))),
+            () -> assertThrows(IllegalStateException.class, () -> catalog.get("Coffee")),
+            () -> assertThrows(IllegalStateException.class, () -> catalog.applyDiscount("Coffee", 10)),
+            () -> assertThrows(IllegalStateException.class, () -> catalog.size()),
+            () -> assertThrows(IllegalStateException.class, view::getFinalPrice)
+        );
+        try (MappedProductCatalog reopened = new MappedProductCatalog(file, 8)) {
+            assertEquals(1, reopened.size());
+            assertEquals(0, reopened.get("Coffee").getDiscount());
+        }
+    }
+}
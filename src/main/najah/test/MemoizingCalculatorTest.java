@@ -0,0 +1,166 @@
+package main.najah.test;
+
+import main.najah.code.Calculator;
+import main.najah.code.MemoizingCalculator;
+import main.najah.code.MemoizingCalculator.Operation;
+import org.junit.jupiter.api.*;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MemoizingCalculator Tests")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class MemoizingCalculatorTest {
+
+    /**
+     * Counts divisions and can hold them until released.
+     */
+    static class SlowCalculator extends Calculator {
+        final AtomicInteger divisions = new AtomicInteger();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public int divide(int a, int b) {
+            divisions.incrementAndGet();
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.divide(a, b);
+        }
+    }
+
+    MemoizingCalculator calc;
+
+    @BeforeEach
+    void setUp() {
+        calc = new MemoizingCalculator();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Test results match Calculator and repeat calls hit the cache")
+    void testCaching() {
+        assertEquals(120, calc.factorial(5));
+        assertEquals(120, calc.factorial(5));
+        assertEquals(3, calc.divide(10, 3));
+        assertEquals(new Calculator().factorialBig(30), calc.factorialBig(30));
+        assertAll("Counters",
+            () -> assertEquals(1, calc.getHitCount()),
+            () -> assertEquals(3, calc.getMissCount()),
+            () -> assertEquals(3, calc.getCacheSize()),
+            () -> assertEquals(1, calc.getLatencyStats(Operation.FACTORIAL).getCount()),
+            () -> assertTrue(calc.getLatencyStats(Operation.FACTORIAL_BIG).getMaxNanos() > 0)
+        );
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Test exceptions are cached and replayed")
+    void testCachedExceptions() {
+        ArithmeticException first = assertThrows(ArithmeticException.class, () -> calc.divide(5, 0));
+        ArithmeticException second = assertThrows(ArithmeticException.class, () -> calc.divide(5, 0));
+        IllegalArgumentException negative = assertThrows(IllegalArgumentException.class, () -> calc.factorial(-3));
+        assertAll("Replayed",
+            () -> assertSame(first, second),
+            () -> assertEquals("Cannot divide by zero", first.getMessage()),
+            () -> assertEquals("Negative input", negative.getMessage()),
+            () -> assertEquals(1, calc.getHitCount()),
+            () -> assertEquals(2, calc.getMissCount())
+        );
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Test the cache is bounded")
+    void testBounded() {
+        MemoizingCalculator small = new MemoizingCalculator(new Calculator(), 8, 4, Runnable::run, 4);
+        for (int i = 0; i < 100; i++) {
+            small.factorial(i);
+        }
+        assertTrue(small.getCacheSize() <= 8);
+        assertThrows(IllegalArgumentException.class,
+            () -> new MemoizingCalculator(new Calculator(), 0, 4, Runnable::run, 4));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Test concurrent identical calls compute once")
+    void testCoalescing() throws Exception {
+        SlowCalculator slow = new SlowCalculator();
+        MemoizingCalculator shared = new MemoizingCalculator(slow, 64, 4, Runnable::run, 8);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            results.add(pool.submit(() -> shared.divide(100, 7)));
+            assertTrue(slow.entered.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                results.add(pool.submit(() -> shared.divide(100, 7)));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (shared.getCoalescedCount() < 7 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            slow.release.countDown();
+            for (Future<Integer> f : results) {
+                assertEquals(14, f.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, slow.divisions.get());
+        assertEquals(7, shared.getCoalescedCount());
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Test async calls are batched and complete with results or errors")
+    void testAsync() {
+        SlowCalculator slow = new SlowCalculator();
+        slow.release.countDown();
+        MemoizingCalculator async = new MemoizingCalculator(slow, 64, 4, Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            return t;
+        }), 16);
+        List<CompletableFuture<Integer>> quotients = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            quotients.add(async.divideAsync(1000, 1 + i % 5));
+        }
+        CompletableFuture<BigInteger> big = async.factorialBigAsync(25);
+        CompletableFuture<Integer> zero = async.divideAsync(1, 0);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(1000 / (1 + i % 5), quotients.get(i).join());
+        }
+        assertEquals(new Calculator().factorialBig(25), big.join());
+        CompletionException e = assertThrows(CompletionException.class, zero::join);
+        assertInstanceOf(ArithmeticException.class, e.getCause());
+        assertEquals(6, slow.divisions.get());
+        assertEquals(7, async.getMissCount());
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Test repeated calls are served from the cache")
+    void testRepeatedHits() {
+        calc.factorialBig(5_000);
+        for (int i = 0; i < 1_000_000; i++) {
+            calc.factorialBig(5_000);
+        }
+        assertEquals(1_000_000, calc.getHitCount());
+    }
+}
@@ -0,0 +1,98 @@
+package main.najah.test;
+
+import main.najah.code.Money;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Money Tests")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class MoneyTest {
+
+    @Test
+    @Order(1)
+    @DisplayName("Test amounts parse, print and convert exactly")
+    void testConversions() {
+        assertAll("Conversions",
+            () -> assertEquals(1234, Money.parse("12.34").getMinorUnits()),
+            () -> assertEquals(1200, Money.parse("12").getMinorUnits()),
+            () -> assertEquals(1230, Money.parse("12.300").getMinorUnits()),
+            () -> assertEquals("-0.05", Money.ofMinor(-5).toString()),
+            () -> assertEquals(Money.ofMinor(101), Money.fromDouble(1.005)),
+            () -> assertEquals(Money.ofMinor(30), Money.fromDouble(0.1 + 0.2)),
+            () -> assertEquals(new BigDecimal("99.99"), Money.ofMinor(9999).toBigDecimal()),
+            () -> assertSame(Money.ZERO, Money.ofMinor(0))
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"12.345", "abc", "", "1e-3"})
+    @Order(2)
+    @DisplayName("Test amounts that are not whole cents are rejected")
+    void testInvalidAmounts(String amount) {
+        Exception e = assertThrows(IllegalArgumentException.class, () -> Money.parse(amount));
+        assertEquals("Invalid amount", e.getMessage());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Test arithmetic is exact and detects overflow")
+    void testArithmetic() {
+        Money a = Money.ofMinor(250);
+        assertAll("Arithmetic",
+            () -> assertEquals(Money.ofMinor(400), a.plus(Money.ofMinor(150))),
+            () -> assertEquals(Money.ofMinor(-50), a.minus(Money.ofMinor(300))),
+            () -> assertTrue(a.minus(Money.ofMinor(300)).isNegative()),
+            () -> assertEquals(Money.ofMinor(750), a.times(3)),
+            () -> assertTrue(a.compareTo(Money.ofMinor(251)) < 0),
+            () -> assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).plus(a)),
+            () -> assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE / 2).times(3))
+        );
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Test discounts round half away from zero")
+    void testDiscountRounding() {
+        assertAll("Rounding",
+            () -> assertEquals(Money.ofMinor(80), Money.ofMinor(100).discounted(2_000)),
+            () -> assertEquals(Money.ofMinor(1), Money.ofMinor(1).discounted(5_000)),
+            () -> assertEquals(Money.ofMinor(2), Money.ofMinor(3).discounted(5_000)),
+            () -> assertEquals(Money.ofMinor(-2), Money.ofMinor(-3).discounted(5_000)),
+            () -> assertEquals(Money.ofMinor(1749), Money.ofMinor(1999).discounted(1_250)),
+            () -> assertEquals(Money.ofMinor(Long.MAX_VALUE), Money.ofMinor(Long.MAX_VALUE).discounted(0)),
+            () -> assertEquals(Money.ofMinor(Long.MIN_VALUE / 2), Money.ofMinor(Long.MIN_VALUE).discounted(5_000))
+        );
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Test discounts match BigDecimal rounding")
+    void testDiscountMatchesBigDecimal() {
+        Random random = new Random(21);
+        for (int i = 0; i < 100_000; i++) {
+            long minor = i % 2 == 0 ? random.nextInt(1_000_000) : random.nextLong();
+            int bp = random.nextInt(5_001);
+            long expected = BigDecimal.valueOf(minor).multiply(BigDecimal.valueOf(10_000 - bp))
+                .divide(BigDecimal.valueOf(10_000), 0, RoundingMode.HALF_UP).longValueExact();
+            assertEquals(expected, Money.ofMinor(minor).discounted(bp).getMinorUnits());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 5_001, 10_000})
+    @Order(6)
+    @DisplayName("Test discounts outside 0 to 50% are rejected as in Product")
+    void testInvalidDiscount(int bp) {
+        Exception e = assertThrows(IllegalArgumentException.class, () -> Money.ofMinor(100).discounted(bp));
+        assertEquals("Invalid discount", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> Money.toBasisPoints(bp / 100.0));
+        assertEquals(5_000, Money.toBasisPoints(50));
+    }
+}
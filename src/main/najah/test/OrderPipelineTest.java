@@ -0,0 +1,215 @@
+package main.najah.test;
+
+import main.najah.code.Ingredient;
+import main.najah.code.Inventory;
+import main.najah.code.DrinkOrder;
+import main.najah.code.OrderPipeline;
+import main.najah.code.OrderResult;
+import main.najah.code.Recipe;
+import main.najah.code.RecipeBook;
+import main.najah.code.RecipeException;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OrderPipeline Tests")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class OrderPipelineTest {
+
+    RecipeBook book;
+
+    @BeforeEach
+    void setUp() throws RecipeException {
+        book = new RecipeBook();
+        Recipe coffee = new Recipe();
+        coffee.setName("Coffee");
+        coffee.setPrice("50");
+        coffee.setAmtCoffee("3");
+        coffee.setAmtSugar("1");
+        book.addRecipe(coffee);
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Test each order outcome and its change")
+    void testOutcomes() throws Exception {
+        Inventory inventory = new Inventory(6, 0, 2, 0);
+        try (OrderPipeline pipeline = new OrderPipeline(book, inventory)) {
+            OrderResult paid = pipeline.submit(new DrinkOrder("Coffee", 75)).get();
+            OrderResult tooLittle = pipeline.submit(new DrinkOrder("Coffee", 40)).get();
+            OrderResult unknown = pipeline.submit(new DrinkOrder("Tea", 30)).get();
+            OrderResult second = pipeline.submit(new DrinkOrder("Coffee", 50)).get();
+            OrderResult empty = pipeline.submit(new DrinkOrder("Coffee", 60)).get();
+            assertAll("Outcomes",
+                () -> assertEquals(OrderResult.Status.DISPENSED, paid.getStatus()),
+                () -> assertEquals(25, paid.getChange()),
+                () -> assertEquals(OrderResult.Status.INSUFFICIENT_PAYMENT, tooLittle.getStatus()),
+                () -> assertEquals(40, tooLittle.getChange()),
+                () -> assertEquals(OrderResult.Status.UNKNOWN_RECIPE, unknown.getStatus()),
+                () -> assertNull(unknown.getRecipe()),
+                () -> assertEquals(0, second.getChange()),
+                () -> assertEquals(OrderResult.Status.OUT_OF_STOCK, empty.getStatus()),
+                () -> assertEquals(60, empty.getChange())
+            );
+        }
+        assertEquals(0, inventory.getStock(Ingredient.COFFEE));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Test closed pipeline rejects orders")
+    void testClosed() throws Exception {
+        OrderPipeline pipeline = new OrderPipeline(book, new Inventory(), 4, 1, 1, 2);
+        pipeline.close();
+        pipeline.close();
+        assertThrows(IllegalStateException.class, () -> pipeline.submit(new DrinkOrder("Coffee", 50)));
+        assertThrows(IllegalArgumentException.class, () -> new DrinkOrder("Coffee", -1));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Test 100k orders flow through the pipeline")
+    void testThroughput() throws Exception {
+        Inventory inventory = new Inventory();
+        inventory.restock(3 * 50_000, 0, 50_000, 0);
+        List<CompletableFuture<OrderResult>> results = new ArrayList<>();
+        OrderPipeline pipeline = new OrderPipeline(book, inventory);
+        for (int i = 0; i < 100_000; i++) {
+            results.add(pipeline.submit(new DrinkOrder("Coffee", 50)));
+        }
+        pipeline.close();
+        long dispensed = results.stream().filter(f -> f.join().getStatus() == OrderResult.Status.DISPENSED).count();
+        List<OrderPipeline.StageStats> stats = pipeline.getStats();
+        assertAll("Throughput",
+            () -> assertEquals(50_000, dispensed),
+            () -> assertEquals(0, inventory.getStock(Ingredient.COFFEE)),
+            () -> assertEquals(100_000, stats.get(0).getProcessed()),
+            () -> assertEquals(100_000, stats.get(1).getProcessed()),
+            () -> assertEquals(0, stats.get(1).getQueueDepth()),
+            () -> assertTrue(stats.get(1).getThroughput() > 0)
+        );
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Test every order accepted while closing completes")
+    void testSubmitWhileClosing() throws Exception {
+        Inventory inventory = new Inventory();
+        inventory.restock(30_000, 0, 10_000, 0);
+        OrderPipeline pipeline = new OrderPipeline(book, inventory, 8, 1, 1, 4);
+        List<List<CompletableFuture<OrderResult>>> accepted = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            List<CompletableFuture<OrderResult>> mine = new ArrayList<>();
+            accepted.add(mine);
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < 1_000; i++) {
+                        mine.add(pipeline.submit(new DrinkOrder("Coffee", 50)));
+                    }
+                } catch (IllegalStateException | InterruptedException e) {
+                    // Rejected once the pipeline started closing
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        pipeline.close();
+        for (Thread t : threads) {
+            t.join();
+        }
+        for (List<CompletableFuture<OrderResult>> mine : accepted) {
+            for (CompletableFuture<OrderResult> f : mine) {
+                assertEquals(OrderResult.Status.DISPENSED, f.get(5, TimeUnit.SECONDS).getStatus());
+            }
+        }
+        assertThrows(IllegalStateException.class, () -> pipeline.submit(new DrinkOrder("Coffee", 50)));
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Test a failing stage fails its orders and keeps serving")
+    void testStageFailure() throws Exception {
+        Inventory inventory = new Inventory(30, 0, 10, 0) {
+            @Override
+            public boolean reserve(Recipe r, int servings) {
+                if (servings > 1) {
+                    throw new IllegalStateException("Reservation failed");
+                }
+                return super.reserve(r, servings);
+            }
+        };
+        RecipeBook failing = new RecipeBook() {
+            @Override
+            public synchronized Recipe getRecipe(String name) {
+                if (name.equals("Broken")) {
+                    throw new IllegalStateException("Lookup failed");
+                }
+                return book.getRecipe(name);
+            }
+        };
+        try (OrderPipeline pipeline = new OrderPipeline(failing, inventory, 8, 1, 1, 1)) {
+            CompletableFuture<OrderResult> broken = pipeline.submit(new DrinkOrder("Broken", 50));
+            ExecutionException e = assertThrows(ExecutionException.class, () -> broken.get(5, TimeUnit.SECONDS));
+            assertEquals("Lookup failed", e.getCause().getMessage());
+            OrderResult after = pipeline.submit(new DrinkOrder("Coffee", 50)).get(5, TimeUnit.SECONDS);
+            assertEquals(OrderResult.Status.DISPENSED, after.getStatus());
+        }
+        try (OrderPipeline pipeline = new OrderPipeline(failing, inventory, 8, 1, 1, 8)) {
+            List<CompletableFuture<OrderResult>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pipeline.submit(new DrinkOrder("Coffee", 50)));
+            }
+            for (CompletableFuture<OrderResult> f : results) {
+                try {
+                    assertEquals(OrderResult.Status.DISPENSED, f.get(5, TimeUnit.SECONDS).getStatus());
+                } catch (ExecutionException e) {
+                    assertEquals("Reservation failed", e.getCause().getMessage());
+                }
+            }
+            OrderResult after = pipeline.submit(new DrinkOrder("Coffee", 50)).get(5, TimeUnit.SECONDS);
+            assertNotNull(after.getStatus());
+        }
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Test closing from a callback on a worker fails instead of hanging")
+    void testCloseFromCallback() throws Exception {
+        CountDownLatch attached = new CountDownLatch(1);
+        RecipeBook waiting = new RecipeBook() {
+            @Override
+            public synchronized Recipe getRecipe(String name) {
+                try {
+                    attached.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return book.getRecipe(name);
+            }
+        };
+        OrderPipeline pipeline = new OrderPipeline(waiting, new Inventory(30, 0, 10, 0), 8, 1, 1, 4);
+        CompletableFuture<Exception> closed = pipeline.submit(new DrinkOrder("Coffee", 50)).handle((r, t) -> {
+            try {
+                pipeline.close();
+                return null;
+            } catch (IllegalStateException e) {
+                return e;
+            }
+        });
+        attached.countDown();
+        Exception e = closed.get(5, TimeUnit.SECONDS);
+        assertNotNull(e);
+        assertEquals("Pipeline cannot be closed from its own workers", e.getMessage());
+        assertEquals(OrderResult.Status.DISPENSED,
+            pipeline.submit(new DrinkOrder("Coffee", 50)).get(5, TimeUnit.SECONDS).getStatus());
+        pipeline.close();
+        assertThrows(IllegalStateException.class, () -> pipeline.submit(new DrinkOrder("Coffee", 50)));
+    }
+}
@@ -0,0 +1,143 @@
+package main.najah.test;
+
+import main.najah.code.PersistentRecipeBook;
+import main.najah.code.Recipe;
+import main.najah.code.RecipeException;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static main.najah.test.TestRecipes.recipe;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PersistentRecipeBook Test Suite")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class PersistentRecipeBookTest {
+
+    @TempDir
+    Path dir;
+    Path file;
+
+    @BeforeEach
+    void setUp() {
+        file = dir.resolve("menu.book");
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Test recipes survive closing and reopening the book")
+    void testReopen() throws IOException, RecipeException {
+        try (PersistentRecipeBook book = new PersistentRecipeBook(file, 4)) {
+            assertTrue(book.addRecipe(recipe("Coffee", 50, 3, 2, 1, 0)));
+            assertTrue(book.addRecipe(recipe("Mocha", 70, 3, 2, 1, 0)));
+            assertFalse(book.addRecipe(recipe("Coffee", 10, 3, 2, 1, 0)));
+            assertEquals("Mocha", book.deleteRecipe(1));
+        }
+        try (PersistentRecipeBook book = new PersistentRecipeBook(file, 100)) {
+            Recipe coffee = book.getRecipe("Coffee");
+            assertAll("Reopened book",
+                () -> assertEquals(4, book.capacity()),
+                () -> assertEquals(2, book.size()),
+                () -> assertEquals(50, coffee.getPrice()),
+                () -> assertEquals(3, coffee.getAmtCoffee()),
+                () -> assertNull(book.getRecipe("Mocha")),
+                () -> assertEquals("", book.getRecipes()[1].getName()),
+                () -> assertNull(book.getRecipes()[2])
+            );
+        }
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Test journal tail is replayed over the last checkpoint")
+    void testReplayJournal() throws IOException, RecipeException {
+        Path checkpointed = dir.resolve("checkpointed.book");
+        try (PersistentRecipeBook book = new PersistentRecipeBook(file, 4)) {
+            book.addRecipe(recipe("Coffee", 50, 3, 2, 1, 0));
+            book.checkpoint();
+            Files.copy(file, checkpointed);
+            book.addRecipe(recipe("Latte", 60, 3, 2, 1, 0));
+            book.editRecipe(0, recipe("Mocha", 70, 3, 2, 1, 0));
+            Files.copy(PersistentRecipeBook.journalPath(file),
+                    PersistentRecipeBook.journalPath(checkpointed));
+        }
+        try (PersistentRecipeBook book = new PersistentRecipeBook(checkpointed, 4)) {
+            assertAll("Replayed book",
+                () -> assertEquals(2, book.size()),
+                () -> assertEquals(70, book.getRecipe(0).getPrice()),
+                () -> assertEquals(60, book.getRecipe("Latte").getPrice()),
+                () -> assertNull(book.getRecipe("Coffee"))
+            );
+        }
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Test a torn journal entry is discarded")
+    void testTornEntry() throws IOException, RecipeException {
+        Path crashed = dir.resolve("crashed.book");
+        try (PersistentRecipeBook book = new PersistentRecipeBook(file, 4)) {
+            book.checkpoint();
+            Files.copy(file, crashed);
+            book.addRecipe(recipe("Coffee", 50, 3, 2, 1, 0));
+            book.addRecipe(recipe("Latte", 60, 3, 2, 1, 0));
+            Path journal = PersistentRecipeBook.journalPath(file);
+            byte[] bytes = Files.readAllBytes(journal);
+            // Keep the first entry and half of the second
+            Files.write(PersistentRecipeBook.journalPath(crashed),
+                    Arrays.copyOf(bytes, bytes.length - bytes.length / 4));
+        }
+        try (PersistentRecipeBook book = new PersistentRecipeBook(crashed, 4)) {
+            assertEquals(1, book.size());
+            assertEquals("Coffee", book.getRecipe(0).getName());
+            assertNull(book.getRecipe("Latte"));
+            assertTrue(book.addRecipe(recipe("Latte", 65, 3, 2, 1, 0)));
+        }
+        try (PersistentRecipeBook book = new PersistentRecipeBook(crashed, 4)) {
+            assertEquals(65, book.getRecipe("Latte").getPrice());
+        }
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Test a corrupted journal entry stops the replay")
+    void testCorruptEntry() throws IOException, RecipeException {
+        Path crashed = dir.resolve("corrupt.book");
+        try (PersistentRecipeBook book = new PersistentRecipeBook(file, 4)) {
+            book.checkpoint();
+            Files.copy(file, crashed);
+            book.addRecipe(recipe("Coffee", 50, 3, 2, 1, 0));
+            Files.copy(PersistentRecipeBook.journalPath(file),
+                    PersistentRecipeBook.journalPath(crashed), StandardCopyOption.REPLACE_EXISTING);
+        }
+        try (FileChannel channel = FileChannel.open(
+                PersistentRecipeBook.journalPath(crashed), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {'X'}), 10);
+        }
+        try (PersistentRecipeBook book = new PersistentRecipeBook(crashed, 4)) {
+            assertEquals(0, book.size());
+            assertEquals(0, Files.size(PersistentRecipeBook.journalPath(crashed)));
+        }
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Test a full book and long names are rejected")
+    void testLimits() throws IOException, RecipeException {
+        try (PersistentRecipeBook book = new PersistentRecipeBook(file, 1)) {
+            assertThrows(IllegalArgumentException.class,
+                () -> book.addRecipe(recipe("x".repeat(PersistentRecipeBook.MAX_NAME_BYTES + 1), 1, 3, 2, 1, 0)));
+            assertTrue(book.addRecipe(recipe("Coffee", 50, 3, 2, 1, 0)));
+            assertFalse(book.addRecipe(recipe("Latte", 60, 3, 2, 1, 0)));
+            assertThrows(ArrayIndexOutOfBoundsException.class, () -> book.deleteRecipe(1));
+        }
+    }
+}
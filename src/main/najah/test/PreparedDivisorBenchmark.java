@@ -0,0 +1,41 @@
+package main.najah.test;
+
+import main.najah.code.PreparedDivisor;
+
+import java.util.Random;
+
+/**
+ * Compares dividing an array with Java's / operator and with a
+ * PreparedDivisor.  Not a unit test.
+ */
+public class PreparedDivisorBenchmark {
+
+    public static void main(String[] args) {
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        // Read from the arguments so the JIT cannot turn / into a multiply itself
+        int divisor = args.length > 1 ? Integer.parseInt(args[1]) : 7;
+        int[] dividends = new Random(3).ints(length).toArray();
+        int[] quotients = new int[length];
+        PreparedDivisor prepared = PreparedDivisor.of(divisor);
+
+        double idiv = Benchmarks.bestMillis(() -> {
+            for (int i = 0; i < dividends.length; i++) {
+                quotients[i] = dividends[i] / divisor;
+            }
+            return quotients[length / 2];
+        });
+        double bulk = Benchmarks.bestMillis(() -> {
+            prepared.divide(dividends, 0, quotients, 0, length);
+            return quotients[length / 2];
+        });
+        double single = Benchmarks.bestMillis(() -> {
+            for (int i = 0; i < dividends.length; i++) {
+                quotients[i] = prepared.divide(dividends[i]);
+            }
+            return quotients[length / 2];
+        });
+        Benchmarks.report("/ operator", idiv, idiv);
+        Benchmarks.report("PreparedDivisor, bulk", bulk, idiv);
+        Benchmarks.report("PreparedDivisor, one at a time", single, idiv);
+    }
+}
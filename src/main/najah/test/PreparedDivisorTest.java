@@ -0,0 +1,121 @@
+package main.najah.test;
+
+import main.najah.code.Calculator;
+import main.najah.code.PreparedDivisor;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PreparedDivisor Tests")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class PreparedDivisorTest {
+
+    static final int[] EDGE_DIVIDENDS = {
+        0, 1, -1, 2, -2, 3, -3, 7, -7, 100, -100, 65535, 65536, -65536,
+        Integer.MAX_VALUE, Integer.MAX_VALUE - 1, Integer.MIN_VALUE, Integer.MIN_VALUE + 1
+    };
+
+    static int[] dividends() {
+        return IntStream.concat(IntStream.of(EDGE_DIVIDENDS), new Random(19).ints(2_000)).toArray();
+    }
+
+    static void assertMatchesJava(int divisor, int[] dividends) {
+        PreparedDivisor d = PreparedDivisor.of(divisor);
+        int[] bulk = d.divide(dividends);
+        for (int i = 0; i < dividends.length; i++) {
+            int n = dividends[i];
+            int expected = n / divisor;
+            if (d.divide(n) != expected || bulk[i] != expected) {
+                fail(n + " / " + divisor + " should be " + expected + " but was " + d.divide(n)
+                    + " (bulk " + bulk[i] + ")");
+            }
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Test every small divisor matches Java division")
+    void testSmallDivisors() {
+        int[] dividends = dividends();
+        for (int divisor = -1_000; divisor <= 1_000; divisor++) {
+            if (divisor != 0) {
+                assertMatchesJava(divisor, dividends);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE + 1, 1 << 30, -(1 << 30),
+        65536, -65536, 641, 6700417, 1000000007, -1000000007})
+    @Order(2)
+    @DisplayName("Test large divisors and powers of two match Java division")
+    void testLargeDivisors(int divisor) {
+        assertMatchesJava(divisor, dividends());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Test random divisors match Java division")
+    void testRandomDivisors() {
+        int[] dividends = dividends();
+        Random random = new Random(7);
+        for (int i = 0; i < 2_000; i++) {
+            int divisor = random.nextInt();
+            if (divisor != 0) {
+                assertMatchesJava(divisor, dividends);
+            }
+        }
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Test all dividends of a 16-bit range against a few divisors")
+    void testExhaustiveRange() {
+        int[] dividends = IntStream.rangeClosed(-(1 << 16), 1 << 16).toArray();
+        for (int divisor : new int[] {3, -3, 7, 10, -10, 60, 641}) {
+            assertMatchesJava(divisor, dividends);
+        }
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Test zero is rejected once, like Calculator.divide")
+    void testZeroDivisor() {
+        ArithmeticException prepared = assertThrows(ArithmeticException.class, () -> new Calculator().prepareDivisor(0));
+        ArithmeticException direct = assertThrows(ArithmeticException.class, () -> new Calculator().divide(1, 0));
+        assertEquals(direct.getMessage(), prepared.getMessage());
+        assertEquals(-7, new Calculator().prepareDivisor(-7).getDivisor());
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Test bulk division of ranges, in place and overlapping")
+    void testBulkRanges() {
+        PreparedDivisor d = PreparedDivisor.of(3);
+        int[] values = {3, 6, 9, 12, 15, 18};
+        d.divide(values, 0, values, 0, 6);
+        assertArrayEquals(new int[] {1, 2, 3, 4, 5, 6}, values);
+        int[] overlapping = {30, 60, 90, 120, 0, 0};
+        d.divide(overlapping, 0, overlapping, 2, 4);
+        assertArrayEquals(new int[] {30, 60, 10, 20, 30, 40}, overlapping);
+        assertThrows(IndexOutOfBoundsException.class, () -> d.divide(values, 4, values, 0, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> d.divide(values, 0, values, 0, -1));
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Test bulk division of a large array")
+    void testBulkLarge() {
+        int[] dividends = new Random(3).ints(10_000_000).toArray();
+        int[] quotients = new int[dividends.length];
+        PreparedDivisor d = PreparedDivisor.of(7);
+        d.divide(dividends, 0, quotients, 0, dividends.length);
+        assertEquals(dividends[12345] / 7, quotients[12345]);
+        assertEquals(dividends[dividends.length - 1] / 7, quotients[quotients.length - 1]);
+    }
+}
@@ -0,0 +1,89 @@
+package main.najah.test;
+
+import main.najah.code.Money;
+import main.najah.code.PricingEngine;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PricingEngine Tests")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class PricingEngineTest {
+
+    static long[] prices(int n) {
+        return new Random(n).longs(n, 0, 10_000_000).toArray();
+    }
+
+    static short[] discounts(int n) {
+        short[] discounts = new short[n];
+        Random random = new Random(-n);
+        for (int i = 0; i < n; i++) {
+            discounts[i] = (short) random.nextInt(5_001);
+        }
+        return discounts;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 1000, 100_000})
+    @Order(1)
+    @DisplayName("Test bulk prices match Money, sequential and parallel")
+    void testMatchesMoney(int n) {
+        long[] prices = prices(n);
+        short[] discounts = discounts(n);
+        long[] sequential = new PricingEngine(Integer.MAX_VALUE).finalPrices(prices, discounts);
+        long[] parallel = new PricingEngine(1).finalPrices(prices, discounts);
+        for (int i = 0; i < n; i++) {
+            long expected = Money.ofMinor(prices[i]).discounted(discounts[i]).getMinorUnits();
+            assertEquals(expected, sequential[i]);
+            assertEquals(expected, parallel[i]);
+        }
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Test invalid columns are rejected before anything is written")
+    void testValidation() {
+        PricingEngine engine = new PricingEngine(1);
+        long[] out = new long[20_000];
+        short[] discounts = new short[20_000];
+        discounts[19_999] = 5_001;
+        long[] prices = new long[20_000];
+        Arrays.fill(prices, 100);
+        Exception discount = assertThrows(IllegalArgumentException.class,
+            () -> engine.finalPrices(prices, discounts, out));
+        assertEquals("Invalid discount", discount.getMessage());
+        assertEquals(0, out[0]);
+        discounts[19_999] = 0;
+        prices[3] = -1;
+        Exception price = assertThrows(IllegalArgumentException.class, () -> engine.finalPrices(prices, discounts));
+        assertEquals("Price must be non-negative", price.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> engine.finalPrices(prices, new short[3]));
+        assertThrows(IllegalArgumentException.class, () -> new PricingEngine(0));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Test the total of final prices")
+    void testTotal() {
+        long[] prices = {1999, 100, 3};
+        short[] discounts = {1_250, 2_000, 5_000};
+        assertEquals(1749 + 80 + 2, new PricingEngine().totalFinalPrice(prices, discounts));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Test pricing millions of products")
+    void testManyProducts() {
+        long[] prices = prices(5_000_000);
+        short[] discounts = discounts(5_000_000);
+        long[] out = new long[prices.length];
+        PricingEngine engine = new PricingEngine();
+        engine.finalPrices(prices, discounts, out);
+        assertEquals(Money.ofMinor(prices[4242]).discounted(discounts[4242]).getMinorUnits(), out[4242]);
+    }
+}
@@ -0,0 +1,173 @@
+package main.najah.test;
+
+import main.najah.code.DiscountReport;
+import main.najah.code.Product;
+import main.najah.code.ProductCatalog;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ProductCatalog Tests")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ProductCatalogTest {
+
+    ProductCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new ProductCatalog();
+        catalog.add(new Product("Coffee", 10));
+        catalog.add(new Product("Latte", 20));
+        catalog.add(new Product("Mocha", 30));
+        catalog.add(new Product("Tea", 5));
+    }
+
+    static List<String> names(List<Product> products) {
+        return products.stream().map(Product::getName).toList();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Test products are indexed by name and by final price")
+    void testIndexes() {
+        Product outside = new Product("Espresso", 12);
+        assertTrue(catalog.add(outside));
+        outside.applyDiscount(50);
+        assertAll("Indexes",
+            () -> assertFalse(catalog.add(new Product("Coffee", 99))),
+            () -> assertEquals(5, catalog.size()),
+            () -> assertEquals(10, catalog.get("Coffee").getPrice()),
+            () -> assertEquals(12, catalog.get("Espresso").getFinalPrice()),
+            () -> assertEquals(List.of("Coffee", "Espresso", "Latte"), names(catalog.findByFinalPrice(10, 20))),
+            () -> assertEquals(List.of(), catalog.findByFinalPrice(21, 29)),
+            () -> assertEquals(List.of(), catalog.findByFinalPrice(30, 5))
+        );
+        assertEquals("Tea", catalog.remove("Tea").getName());
+        assertNull(catalog.get("Tea"));
+        assertEquals(List.of("Coffee"), names(catalog.findByFinalPrice(0, 10)));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Test a single discount replaces the product in both indexes")
+    void testSingleDiscount() {
+        Product before = catalog.get("Mocha");
+        assertTrue(catalog.applyDiscount("Mocha", 50));
+        assertFalse(catalog.applyDiscount("Missing", 10));
+        assertEquals(0, before.getDiscount());
+        assertEquals(15, catalog.get("Mocha").getFinalPrice());
+        assertEquals(List.of("Coffee", "Mocha"), names(catalog.findByFinalPrice(10, 15)));
+        Exception e = assertThrows(IllegalArgumentException.class, () -> catalog.applyDiscount("Mocha", 60));
+        assertEquals("Invalid discount", e.getMessage());
+        assertEquals(50, catalog.get("Mocha").getDiscount());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Test bulk discounts report every rejected product")
+    void testBulkDiscountRejections() {
+        DiscountReport report = catalog.applyDiscount(p -> p.getPrice() >= 10, p -> p.getPrice() * 2);
+        assertEquals(2, report.getProductsDiscounted());
+        assertEquals(List.of("Mocha"),
+            report.getRejections().stream().map(DiscountReport.Rejection::getName).toList());
+        assertEquals("Invalid discount", report.getRejections().get(0).getMessage());
+        assertEquals(60, report.getRejections().get(0).getDiscount());
+        assertEquals(8, catalog.get("Coffee").getFinalPrice(), 1e-9);
+        assertEquals(40, catalog.get("Latte").getDiscount());
+        assertEquals(0, catalog.get("Mocha").getDiscount());
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Test bulk discount by final price range")
+    void testDiscountByFinalPrice() {
+        DiscountReport report = catalog.applyDiscountByFinalPrice(10, 20, 50);
+        assertEquals(2, report.getProductsDiscounted());
+        assertEquals(List.of("Coffee", "Tea", "Latte", "Mocha"), names(catalog.findByFinalPrice(0, 100)));
+        assertEquals(List.of(5.0, 5.0, 10.0, 30.0),
+            catalog.findByFinalPrice(0, 100).stream().map(Product::getFinalPrice).toList());
+        assertEquals(1, catalog.applyDiscountByFinalPrice(30, 30, 70).getRejections().size());
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Test readers see consistent products during a parallel bulk discount")
+    void testConcurrentReaders() throws InterruptedException {
+        ProductCatalog large = new ProductCatalog();
+        for (int i = 0; i < 100_000; i++) {
+            large.add(new Product("P" + i, 100));
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger inconsistent = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            int i = 0;
+            while (!done.get()) {
+                Product p = large.get("P" + (i++ % 100_000));
+                if (p.getFinalPrice() != 100 * (1 - p.getDiscount() / 100)) {
+                    inconsistent.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+        DiscountReport report;
+        try {
+            report = large.applyDiscount(p -> true, 25);
+        } finally {
+            done.set(true);
+            reader.join();
+        }
+        assertEquals(100_000, report.getProductsDiscounted());
+        assertEquals(0, inconsistent.get());
+        assertEquals(100_000, large.findByFinalPrice(75, 75).size());
+        assertEquals(0, large.findByFinalPrice(100, 100).size());
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Test discounting a returned product leaves the indexes intact")
+    void testReturnedProductsAreCopies() {
+        catalog.get("Latte").applyDiscount(50);
+        catalog.findByFinalPrice(30, 30).get(0).applyDiscount(50);
+        catalog.remove("Tea").applyDiscount(50);
+        assertAll("Catalog after outside changes",
+            () -> assertEquals(0, catalog.get("Latte").getDiscount()),
+            () -> assertEquals(30, catalog.get("Mocha").getFinalPrice()),
+            () -> assertEquals(List.of("Coffee", "Latte", "Mocha"), names(catalog.findByFinalPrice(0, 100))),
+            () -> assertEquals(List.of(), catalog.findByFinalPrice(10.5, 19.5))
+        );
+        assertTrue(catalog.applyDiscount("Latte", 50));
+        assertEquals(List.of("Coffee", "Latte"), names(catalog.findByFinalPrice(10, 10)));
+        assertEquals(3, catalog.findByFinalPrice(0, 100).size());
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Test a range query lists each product once during discounts")
+    void testNoDuplicatesDuringDiscounts() throws InterruptedException {
+        AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; !done.get(); i++) {
+                catalog.applyDiscount("Latte", i % 2 == 0 ? 10 : 20);
+            }
+        });
+        writer.start();
+        int duplicated = 0;
+        try {
+            for (int i = 0; i < 100_000; i++) {
+                List<String> found = names(catalog.findByFinalPrice(0, 100));
+                if (found.size() != found.stream().distinct().count()) {
+                    duplicated++;
+                }
+            }
+        } finally {
+            done.set(true);
+            writer.join();
+        }
+        assertEquals(0, duplicated);
+        assertEquals(4, catalog.findByFinalPrice(0, 100).size());
+    }
+}
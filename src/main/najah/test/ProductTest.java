@@ -1,5 +1,6 @@
 package main.najah.test;
 
+import main.najah.code.Money;
 import main.najah.code.Product;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.parallel.Execution;
@@ -127,6 +128,20 @@ public class ProductTest {
         });
     }
 
+    @Test
+    @Order(10)
+    @DisplayName("Test exact money views of price and final price")
+    void testMoneyViews() {
+        Product coffee = new Product("Coffee", 19.99);
+        coffee.applyDiscount(12.5);
+        assertAll("Money views",
+            () -> assertEquals(Money.ofMinor(1999), coffee.getPriceMoney()),
+            () -> assertEquals(1250, coffee.getDiscountBasisPoints()),
+            () -> assertEquals(Money.ofMinor(1749), coffee.getFinalPriceMoney()),
+            () -> assertEquals(coffee.getFinalPrice(), coffee.getFinalPriceMoney().toDouble(), 0.005)
+        );
+    }
+
     @AfterEach
     void teardown() {
         System.out.println("Product test execution complete");
@@ -0,0 +1,166 @@
+package main.najah.test;
+
+import main.najah.code.ConcurrentProduct;
+import main.najah.code.Product;
+import main.najah.code.PromotionEngine;
+import main.najah.code.PromotionRule;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PromotionEngine Tests")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class PromotionEngineTest {
+
+    static final long DAY = 86_400_000L;
+
+    PromotionEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new PromotionEngine(List.of(
+            PromotionRule.always("coffee", 1, 5, true),
+            PromotionRule.always("coffee", 3, 10, true),
+            new PromotionRule("coffee", 1, 10 * DAY, 20 * DAY, 20, false),
+            new PromotionRule("coffee", 6, 15 * DAY, 17 * DAY, 40, true),
+            PromotionRule.always("tea", 2, 15, false),
+            PromotionRule.always("tea", 2, 12, false)
+        ));
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Test tiers, time windows and stacking")
+    void testDiscounts() {
+        assertAll("Discounts",
+            () -> assertEquals(5, engine.discountFor("coffee", 1, 0)),
+            () -> assertEquals(15, engine.discountFor("coffee", 3, 0)),
+            () -> assertEquals(20, engine.discountFor("coffee", 3, 10 * DAY)),
+            () -> assertEquals(20, engine.discountFor("coffee", 1, 20 * DAY - 1)),
+            () -> assertEquals(15, engine.discountFor("coffee", 5, 20 * DAY)),
+            () -> assertEquals(50, engine.discountFor("coffee", 6, 16 * DAY)),
+            () -> assertEquals(20, engine.discountFor("coffee", 6, 17 * DAY)),
+            () -> assertEquals(0, engine.discountFor("tea", 1, 0)),
+            () -> assertEquals(15, engine.discountFor("tea", 2, 0)),
+            () -> assertEquals(0, engine.discountFor("juice", 10, 0)),
+            () -> assertEquals(0, engine.discountFor("coffee", 0, 0))
+        );
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Test the compiled tables agree with evaluating every rule")
+    void testMatchesRules() {
+        Random random = new Random(24);
+        List<PromotionRule> rules = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            long from = random.nextInt(100) * DAY;
+            rules.add(new PromotionRule("c" + random.nextInt(4), 1 + random.nextInt(10), from,
+                from + (1 + random.nextInt(30)) * DAY, random.nextInt(30), random.nextBoolean()));
+        }
+        engine.setRules(rules);
+        for (int i = 0; i < 20_000; i++) {
+            String category = "c" + random.nextInt(5);
+            int quantity = random.nextInt(12);
+            long time = random.nextInt(140) * DAY - DAY + random.nextInt(3) - 1;
+            double best = 0;
+            double stacked = 0;
+            for (PromotionRule r : rules) {
+                if (r.appliesTo(category, quantity, time)) {
+                    if (r.isStackable()) {
+                        stacked += r.getPercent();
+                    } else {
+                        best = Math.max(best, r.getPercent());
+                    }
+                }
+            }
+            assertEquals(Math.min(50, Math.max(best, stacked)), engine.discountFor(category, quantity, time),
+                1e-9, category + " x" + quantity + " at " + time);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {-1, 100.5, Double.NaN})
+    @Order(3)
+    @DisplayName("Test rules with invalid percentages are rejected")
+    void testInvalidRule(double percent) {
+        Exception e = assertThrows(IllegalArgumentException.class, () -> PromotionRule.always("coffee", 1, percent, true));
+        assertEquals("Invalid discount", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> new PromotionRule("coffee", 1, 5, 5, 10, true));
+        assertThrows(IllegalArgumentException.class, () -> PromotionRule.always("coffee", 0, 10, true));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Test applying a promotion sets a valid product discount")
+    void testApply() {
+        Product p = new Product("Latte", 20);
+        assertEquals(50, engine.apply(p, "coffee", 6, 16 * DAY));
+        assertEquals(10, p.getFinalPrice());
+        engine.apply(p, "juice", 1, 0);
+        assertEquals(0, p.getDiscount());
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Test rule sets are swapped whole while lookups continue")
+    void testHotSwap() throws InterruptedException {
+        List<PromotionRule> tenPercent = List.of(PromotionRule.always("a", 1, 10, true), PromotionRule.always("b", 1, 10, true));
+        List<PromotionRule> thirtyPercent = List.of(PromotionRule.always("a", 1, 30, true), PromotionRule.always("b", 1, 30, true));
+        engine.setRules(tenPercent);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger mixed = new AtomicInteger();
+        ConcurrentProduct shared = new ConcurrentProduct("Shared", 100);
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                double a = engine.discountFor("a", 1, 0);
+                if (a != 10 && a != 30) {
+                    mixed.incrementAndGet();
+                }
+                engine.apply(shared, "b", 1, 0);
+            }
+        });
+        reader.start();
+        try {
+            for (int i = 0; i < 10_000; i++) {
+                engine.setRules(i % 2 == 0 ? thirtyPercent : tenPercent);
+            }
+        } finally {
+            done.set(true);
+            reader.join();
+        }
+        assertEquals(0, mixed.get());
+        assertEquals(tenPercent, engine.getRules());
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Test lookups over a large rule set")
+    void testLargeRuleSet() {
+        Random random = new Random(5);
+        List<PromotionRule> rules = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            long from = random.nextInt(365) * DAY;
+            rules.add(new PromotionRule("c" + random.nextInt(10), 1 + random.nextInt(20), from, from + 7 * DAY,
+                random.nextInt(20), random.nextBoolean()));
+        }
+        engine.setRules(rules);
+        String[] categories = new String[10];
+        for (int i = 0; i < categories.length; i++) {
+            categories[i] = "c" + i;
+        }
+        double total = 0;
+        for (int i = 0; i < 5_000_000; i++) {
+            total += engine.discountFor(categories[i % 10], 1 + (i & 31), (i % 365) * DAY);
+        }
+        assertTrue(total > 0);
+    }
+}
@@ -0,0 +1,116 @@
+package main.najah.test;
+
+import main.najah.code.Recipe;
+import main.najah.code.RecipeBatchValidator;
+import main.najah.code.RecipeErrorCode;
+import main.najah.code.RecipeValidationResult;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RecipeBatchValidator Tests")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class RecipeBatchValidatorTest {
+
+    static final String[][] ROWS = {
+        {"Coffee", "50", "3", "2", "1", "0"},
+        {"Mocha", "abc", "1", "-1", "1", "x"},
+        {"Tea", "10"},
+        null,
+        {null, "5", "0", "0", "0", "0", "extra"}
+    };
+
+    @Test
+    @Order(1)
+    @DisplayName("Test every invalid field of every row is reported")
+    void testAllErrorsReported() {
+        RecipeValidationResult result = new RecipeBatchValidator().validate(ROWS);
+        assertAll("Result",
+            () -> assertEquals(5, result.size()),
+            () -> assertEquals(3, result.getInvalidCount()),
+            () -> assertArrayEquals(new int[] {1, 2, 3}, result.getInvalidRows()),
+            () -> assertTrue(result.isValid(0)),
+            () -> assertEquals(EnumSet.of(RecipeErrorCode.PRICE, RecipeErrorCode.MILK, RecipeErrorCode.CHOCOLATE),
+                result.getErrorCodes(1)),
+            () -> assertEquals(List.of("Price must be a positive integer",
+                "Units of milk must be a positive integer",
+                "Units of chocolate must be a positive integer"), result.getMessages(1)),
+            () -> assertFalse(result.hasError(2, RecipeErrorCode.PRICE)),
+            () -> assertTrue(result.hasError(2, RecipeErrorCode.COFFEE)),
+            () -> assertEquals(0x1F, result.getErrorMask(3)),
+            () -> assertNull(result.getRecipe(1))
+        );
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Test valid rows become recipes")
+    void testValidRecipes() {
+        List<Recipe> recipes = new RecipeBatchValidator().validate(ROWS).getValidRecipes();
+        assertEquals(2, recipes.size());
+        Recipe coffee = recipes.get(0);
+        assertAll("Coffee",
+            () -> assertEquals("Coffee", coffee.getName()),
+            () -> assertEquals(50, coffee.getPrice()),
+            () -> assertEquals(3, coffee.getAmtCoffee()),
+            () -> assertEquals(2, coffee.getAmtMilk()),
+            () -> assertEquals(1, coffee.getAmtSugar()),
+            () -> assertEquals(0, coffee.getAmtChocolate()),
+            () -> assertEquals("", recipes.get(1).getName())
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 100, 5000, 20000})
+    @Order(3)
+    @DisplayName("Test sequential and parallel validation agree")
+    void testParallelMatchesSequential(int rows) {
+        String[][] batch = new String[rows][];
+        for (int i = 0; i < rows; i++) {
+            batch[i] = new String[] {"R" + i, i % 7 == 0 ? "-" + (i + 1) : String.valueOf(i), "1", "2",
+                i % 11 == 0 ? "" : "3", "4"};
+        }
+        RecipeValidationResult parallel = new RecipeBatchValidator(1).validate(batch);
+        RecipeValidationResult sequential = new RecipeBatchValidator(Integer.MAX_VALUE).validate(batch);
+        for (int i = 0; i < rows; i++) {
+            assertEquals(sequential.getErrorMask(i), parallel.getErrorMask(i));
+            assertEquals(i % 7 == 0, parallel.hasError(i, RecipeErrorCode.PRICE));
+            assertEquals(i % 11 == 0, parallel.hasError(i, RecipeErrorCode.SUGAR));
+        }
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Test rejections are counted per error code")
+    void testRejectionCounts() {
+        long milk = RecipeErrorCode.MILK.getRejectionCount();
+        new RecipeBatchValidator().validate(ROWS);
+        assertTrue(RecipeErrorCode.MILK.getRejectionCount() - milk >= 3);
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Test validating a large batch")
+    void testThroughput() {
+        String[][] batch = new String[200_000][];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = new String[] {"R" + i, String.valueOf(i), "1", i % 2 == 0 ? "2" : "two", "3", "4"};
+        }
+        RecipeValidationResult result = new RecipeBatchValidator().validate(batch);
+        assertEquals(100_000, result.getInvalidCount());
+        assertEquals(List.of(RecipeErrorCode.MILK.getMessage()), result.getMessages(1));
+        assertEquals(2, result.getRecipe(0).getAmtMilk());
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Test the parallel threshold must be positive")
+    void testInvalidThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> new RecipeBatchValidator(0));
+    }
+}
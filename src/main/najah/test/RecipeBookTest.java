@@ -8,6 +8,8 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -167,6 +169,57 @@ public class RecipeBookTest {
         assertNull(recipeBook.getRecipes()[0]); // Intentionally wrong
     }
 
+    @Test
+    @Order(12)
+    @DisplayName("Test growable book accepts recipes past the fixed limit")
+    void testGrowableBook() throws RecipeException {
+        RecipeBook growable = new RecipeBook(true);
+        for (int i = 0; i < 1000; i++) {
+            Recipe r = new Recipe();
+            r.setName("Recipe" + i);
+            r.setPrice("10");
+            assertTrue(growable.addRecipe(r));
+        }
+        assertAll("Growable book",
+            () -> assertEquals(1000, growable.size()),
+            () -> assertEquals("Recipe999", growable.getRecipe("Recipe999").getName()),
+            () -> assertEquals(500, growable.indexOf("Recipe500")),
+            () -> assertFalse(growable.addRecipe(growable.getRecipes()[10]))
+        );
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("Test lookup by name follows delete and edit")
+    void testGetRecipeByName() throws RecipeException {
+        recipeBook.addRecipe(sampleRecipe);
+        assertSame(sampleRecipe, recipeBook.getRecipe("Coffee"));
+        recipeBook.deleteRecipe(0);
+        assertNull(recipeBook.getRecipe("Coffee"));
+        assertEquals(-1, recipeBook.indexOf("Coffee"));
+        // The name is free again once its recipe is deleted
+        Recipe again = new Recipe();
+        again.setName("Coffee");
+        assertTrue(recipeBook.addRecipe(again));
+        assertEquals(1, recipeBook.indexOf("Coffee"));
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("Test adding a batch of recipes counts only accepted ones")
+    void testAddRecipes() throws RecipeException {
+        List<Recipe> batch = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Recipe r = new Recipe();
+            r.setName(i == 1 ? "Coffee" : "Recipe" + i);
+            batch.add(r);
+        }
+        recipeBook.addRecipe(sampleRecipe);
+        // One duplicate and one that does not fit into the four slots
+        assertEquals(3, recipeBook.addRecipes(batch));
+        assertEquals(4, recipeBook.size());
+    }
+
     @AfterEach
     void afterEach() {
         System.out.println("Test complete.");
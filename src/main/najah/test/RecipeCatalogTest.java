@@ -0,0 +1,147 @@
+package main.najah.test;
+
+import main.najah.code.Ingredient;
+import main.najah.code.Recipe;
+import main.najah.code.RecipeBook;
+import main.najah.code.RecipeCatalog;
+import main.najah.code.RecipeException;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static main.najah.test.TestRecipes.recipe;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RecipeCatalog Tests")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class RecipeCatalogTest {
+
+    RecipeCatalog catalog;
+
+    @BeforeEach
+    void setUp() throws RecipeException {
+        catalog = new RecipeCatalog();
+        for (int i = 0; i < 10; i++) {
+            catalog.add(recipe("Recipe" + i, 10 * i, i, 1, 2, 0));
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Test rows keep every recipe field")
+    void testColumns() {
+        Recipe r = catalog.getRecipe(7);
+        assertAll("Row 7",
+            () -> assertEquals("Recipe7", r.getName()),
+            () -> assertEquals(70, r.getPrice()),
+            () -> assertEquals(7, r.getAmtCoffee()),
+            () -> assertEquals(1, catalog.getAmount(Ingredient.MILK, 7)),
+            () -> assertEquals(2, catalog.getAmount(Ingredient.SUGAR, 7)),
+            () -> assertEquals(0, catalog.getAmount(Ingredient.CHOCOLATE, 7))
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0, 5, 9})
+    @DisplayName("Test scans select recipes needing more than N coffee units")
+    void testSelectMoreThan(int threshold) {
+        int[] rows = new int[10];
+        int count = catalog.selectMoreThan(Ingredient.COFFEE, threshold, rows);
+        assertEquals(9 - Math.max(threshold, -1), count);
+        assertEquals(count, catalog.countMoreThan(Ingredient.COFFEE, threshold));
+        for (int i = 0; i < count; i++) {
+            assertTrue(catalog.getAmount(Ingredient.COFFEE, rows[i]) > threshold);
+        }
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Test price scan counts matches beyond the output buffer")
+    void testSelectPriceBetween() {
+        int[] rows = new int[2];
+        assertEquals(3, catalog.selectPriceBetween(20, 40, rows));
+        assertArrayEquals(new int[] {2, 3}, rows);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Test a view moves across rows")
+    void testView() {
+        RecipeCatalog.RecipeView view = catalog.view();
+        int total = 0;
+        for (int row = 0; row < catalog.size(); row++) {
+            total += view.moveTo(row).getAmtCoffee();
+        }
+        assertEquals(45, total);
+        assertEquals("Recipe3", view.moveTo(3).toRecipe().getName());
+        assertThrows(IndexOutOfBoundsException.class, () -> view.moveTo(10));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Test import from and export to RecipeBook skip deleted slots")
+    void testRecipeBookRoundTrip() throws RecipeException {
+        RecipeBook book = new RecipeBook();
+        book.addRecipe(recipe("Coffee", 30, 3, 1, 2, 0));
+        book.addRecipe(recipe("Latte", 20, 2, 1, 2, 0));
+        book.deleteRecipe(1);
+        RecipeCatalog imported = RecipeCatalog.of(book);
+        RecipeBook exported = imported.toRecipeBook();
+        assertAll("Round trip",
+            () -> assertEquals(1, imported.size()),
+            () -> assertEquals("Coffee", imported.getName(0)),
+            () -> assertEquals(3, exported.getRecipe("Coffee").getAmtCoffee()),
+            () -> assertEquals(1, exported.size())
+        );
+        book.deleteRecipe(0);
+        catalog.addAll(book);
+        assertEquals(10, catalog.size());
+        assertEquals(10, catalog.distinctNames());
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Test names are stored once in the dictionary")
+    void testDictionary() throws RecipeException {
+        catalog.add(recipe("Recipe1", 40, 4, 1, 2, 0));
+        assertEquals(11, catalog.size());
+        assertEquals(10, catalog.distinctNames());
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Test a large catalog grows every column")
+    void testLargeScan() throws RecipeException {
+        RecipeCatalog large = new RecipeCatalog();
+        Recipe r = recipe("Espresso", 0, 0, 1, 2, 0);
+        for (int i = 0; i < 100_000; i++) {
+            large.add(r);
+        }
+        assertAll("Large catalog",
+            () -> assertEquals(100_000, large.size()),
+            () -> assertEquals(0, large.countMoreThan(Ingredient.COFFEE, 0)),
+            () -> assertEquals(100_000, large.countMoreThan(Ingredient.SUGAR, 1)),
+            () -> assertEquals("Espresso", large.getName(99_999))
+        );
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Test a view of an empty catalog reads as a default recipe")
+    void testEmptyView() throws RecipeException {
+        RecipeCatalog empty = new RecipeCatalog();
+        RecipeCatalog.RecipeView view = empty.view();
+        assertAll("Empty view",
+            () -> assertFalse(view.hasRow()),
+            () -> assertEquals("", view.getName()),
+            () -> assertEquals("", view.toString()),
+            () -> assertEquals(0, view.getPrice()),
+            () -> assertEquals(0, view.getAmtCoffee()),
+            () -> assertEquals("", view.toRecipe().getName())
+        );
+        assertThrows(IndexOutOfBoundsException.class, () -> view.moveTo(0));
+        empty.add(recipe("Mocha", 40, 4, 1, 2, 0));
+        assertTrue(view.hasRow());
+        assertEquals("Mocha", view.getName());
+    }
+}
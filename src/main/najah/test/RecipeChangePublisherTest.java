@@ -0,0 +1,143 @@
+package main.najah.test;
+
+import main.najah.code.Recipe;
+import main.najah.code.RecipeBook;
+import main.najah.code.RecipeChangeEvent;
+import main.najah.code.RecipeChangePublisher;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static main.najah.test.TestRecipes.recipe;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RecipeChangePublisher Tests")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class RecipeChangePublisherTest {
+
+    /**
+     * Records everything it receives and requests only when told to.
+     */
+    static class RecordingSubscriber implements Flow.Subscriber<List<RecipeChangeEvent>> {
+        final List<List<RecipeChangeEvent>> batches = new CopyOnWriteArrayList<>();
+        final CountDownLatch errored = new CountDownLatch(1);
+        /** One permit per event received */
+        final Semaphore received = new Semaphore(0);
+        volatile Flow.Subscription subscription;
+        volatile Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(List<RecipeChangeEvent> batch) {
+            batches.add(batch);
+            received.release(batch.size());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            errored.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        List<RecipeChangeEvent> events() {
+            List<RecipeChangeEvent> events = new ArrayList<>();
+            batches.forEach(events::addAll);
+            return events;
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Test add, delete and edit publish typed events")
+    void testEventsFromRecipeBook() throws Exception {
+        RecipeBook book = new RecipeBook();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        book.getChangePublisher().subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        Recipe coffee = recipe("Coffee", 10, 0, 0, 0, 0);
+        Recipe latte = recipe("Latte", 10, 0, 0, 0, 0);
+        book.addRecipe(coffee);
+        book.addRecipe(latte);
+        book.deleteRecipe(0);
+        Recipe mocha = recipe("Mocha", 10, 0, 0, 0, 0);
+        book.editRecipe(1, mocha);
+
+        assertTrue(subscriber.received.tryAcquire(4, 5, TimeUnit.SECONDS));
+        List<RecipeChangeEvent> events = subscriber.events();
+        assertAll("Events",
+            () -> assertEquals(RecipeChangeEvent.Type.ADDED, events.get(0).getType()),
+            () -> assertNull(events.get(0).getBefore()),
+            () -> assertSame(coffee, events.get(0).getAfter()),
+            () -> assertEquals(1, events.get(1).getSlot()),
+            () -> assertEquals(RecipeChangeEvent.Type.DELETED, events.get(2).getType()),
+            () -> assertSame(coffee, events.get(2).getBefore()),
+            () -> assertEquals("", events.get(2).getAfter().getName()),
+            () -> assertEquals(RecipeChangeEvent.Type.EDITED, events.get(3).getType()),
+            () -> assertSame(latte, events.get(3).getBefore()),
+            () -> assertSame(mocha, events.get(3).getAfter())
+        );
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Test buffered events are delivered in one batch per request")
+    void testBatching() throws Exception {
+        RecipeBook book = new RecipeBook(true);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        book.getChangePublisher().subscribe(subscriber);
+        for (int i = 0; i < 5; i++) {
+            book.addRecipe(recipe("Recipe" + i, 10, 0, 0, 0, 0));
+        }
+        assertTrue(subscriber.batches.isEmpty());
+        subscriber.subscription.request(1);
+        assertTrue(subscriber.received.tryAcquire(5, 5, TimeUnit.SECONDS));
+        book.addRecipe(recipe("Recipe5", 10, 0, 0, 0, 0));
+        Thread.sleep(50);
+        assertEquals(1, subscriber.batches.size());
+        assertEquals(5, subscriber.batches.get(0).size());
+        assertEquals(4, subscriber.batches.get(0).get(4).getSlot());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Test a slow subscriber overflows without blocking the writer")
+    void testOverflow() throws Exception {
+        RecipeBook book = new RecipeBook(true);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        book.getChangePublisher().subscribe(subscriber);
+        //Never requesting anything must not stop the writer
+        for (int i = 0; i < Flow.defaultBufferSize() + 1; i++) {
+            book.addRecipe(recipe("Recipe" + i, 10, 0, 0, 0, 0));
+        }
+        assertTrue(subscriber.errored.await(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, subscriber.error);
+        assertFalse(book.getChangePublisher().hasSubscribers());
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Test a non-positive request is an error")
+    void testInvalidRequest() throws Exception {
+        RecipeChangePublisher publisher = new RecipeChangePublisher(Runnable::run, 4, 4);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(0);
+        assertInstanceOf(IllegalArgumentException.class, subscriber.error);
+        assertFalse(publisher.hasSubscribers());
+    }
+}
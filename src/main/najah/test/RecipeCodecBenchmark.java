@@ -0,0 +1,34 @@
+package main.najah.test;
+
+import main.najah.code.RecipeBook;
+import main.najah.code.RecipeCodec;
+import main.najah.code.RecipeException;
+
+import java.nio.ByteBuffer;
+
+import static main.najah.test.TestRecipes.recipe;
+
+/**
+ * Compares decoding a whole encoded book with reading single recipes
+ * through a lazy BookView, and times encoding.  Not a unit test.
+ */
+public class RecipeCodecBenchmark {
+
+    public static void main(String[] args) throws RecipeException {
+        int recipes = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        RecipeBook book = new RecipeBook(true);
+        for (int i = 0; i < recipes; i++) {
+            book.addRecipe(recipe("Recipe" + i, i, 3, 1, 300, 0));
+        }
+        RecipeCodec codec = new RecipeCodec();
+        ByteBuffer encoded = codec.encode(book);
+        System.out.println(recipes + " recipes, " + encoded.remaining() + " bytes");
+
+        double decodeAll = Benchmarks.bestMillis(() -> codec.view(encoded.duplicate()).toRecipeBook().size());
+        double lazyOne = Benchmarks.bestMillis(() -> codec.view(encoded.duplicate()).getRecipe(recipes / 2).getPrice());
+        double encode = Benchmarks.bestMillis(() -> codec.encode(book).remaining());
+        Benchmarks.report("decode whole book", decodeAll, decodeAll);
+        Benchmarks.report("read one recipe through a view", lazyOne, decodeAll);
+        Benchmarks.report("encode whole book", encode, encode);
+    }
+}
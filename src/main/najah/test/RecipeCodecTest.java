@@ -0,0 +1,177 @@
+package main.najah.test;
+
+import main.najah.code.Recipe;
+import main.najah.code.RecipeBook;
+import main.najah.code.RecipeCodec;
+import main.najah.code.RecipeException;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static main.najah.test.TestRecipes.recipe;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RecipeCodec Tests")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class RecipeCodecTest {
+
+    RecipeCodec codec;
+    RecipeBook book;
+
+    static void assertSameRecipe(Recipe expected, Recipe actual) {
+        assertAll(expected.getName(),
+            () -> assertEquals(expected.getName(), actual.getName()),
+            () -> assertEquals(expected.getPrice(), actual.getPrice()),
+            () -> assertEquals(expected.getAmtCoffee(), actual.getAmtCoffee()),
+            () -> assertEquals(expected.getAmtMilk(), actual.getAmtMilk()),
+            () -> assertEquals(expected.getAmtSugar(), actual.getAmtSugar()),
+            () -> assertEquals(expected.getAmtChocolate(), actual.getAmtChocolate())
+        );
+    }
+
+    @BeforeEach
+    void setUp() throws RecipeException {
+        codec = new RecipeCodec();
+        book = new RecipeBook(true);
+        book.addRecipe(recipe("Coffee", 50, 3, 1, 300, 0));
+        book.addRecipe(recipe("Café crème ☕", 2147483647, 0, 1, 300, 0));
+        book.addRecipe(recipe("Mocha", 75, 200000, 1, 300, 0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "Latte", "Café", "☕ Mocha", "Tea 🍵", "bad \uD800 surrogate"})
+    @Order(1)
+    @DisplayName("Test a recipe survives encoding in heap and direct buffers")
+    void testRoundTrip(String name) throws RecipeException {
+        Recipe r = recipe(name, 2147483647, 127, 1, 300, 0);
+        for (ByteBuffer buffer : new ByteBuffer[] {ByteBuffer.allocate(64), ByteBuffer.allocateDirect(64)}) {
+            codec.encode(r, buffer);
+            assertEquals(codec.encodedSize(r), buffer.position());
+            Recipe decoded = codec.decode(buffer.flip());
+            assertFalse(buffer.hasRemaining());
+            assertEquals(new String(name.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8), decoded.getName());
+            assertEquals(2147483647, decoded.getPrice());
+            assertEquals(300, decoded.getAmtSugar());
+        }
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Test small values take one byte and dictionary names take one more")
+    void testCompactEncoding() throws RecipeException {
+        Recipe r = recipe("Coffee", 50, 3, 1, 300, 0);
+        RecipeCodec dictionaryCodec = new RecipeCodec(List.of("Latte", "Coffee"));
+        ByteBuffer buffer = ByteBuffer.allocate(32);
+        dictionaryCodec.encode(r, buffer);
+        assertAll("Sizes",
+            () -> assertEquals(1 + 1 + 6 + 1 + 1 + 1 + 2 + 1, codec.encodedSize(r)),
+            () -> assertEquals(1 + 1 + 1 + 1 + 1 + 2 + 1, dictionaryCodec.encodedSize(r)),
+            () -> assertSameRecipe(r, dictionaryCodec.decode(buffer.flip()))
+        );
+        buffer.rewind();
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(buffer));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Test invalid input is rejected")
+    void testMalformed() throws RecipeException {
+        ByteBuffer small = ByteBuffer.allocate(4);
+        assertThrows(BufferOverflowException.class, () -> codec.encode(recipe("Coffee", 50, 3, 1, 300, 0), small));
+        assertEquals(0, small.position());
+        assertAll("Malformed",
+            () -> assertThrows(IllegalArgumentException.class, () -> codec.decode(ByteBuffer.allocate(0))),
+            () -> assertThrows(IllegalArgumentException.class, () -> codec.decode(ByteBuffer.wrap(new byte[] {2, 0}))),
+            () -> assertThrows(IllegalArgumentException.class, () -> codec.decode(ByteBuffer.wrap(new byte[] {1, 20, 'a'}))),
+            () -> assertThrows(IllegalArgumentException.class,
+                () -> codec.decode(ByteBuffer.wrap(new byte[] {1, 0, -1, -1, -1, -1, 15, 0, 0, 0, 0}))),
+            () -> assertThrows(IllegalArgumentException.class, () -> codec.view(ByteBuffer.allocate(40)))
+        );
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Test a book view decodes single slots lazily")
+    void testBookView() throws RecipeException {
+        ByteBuffer encoded = codec.encode(book);
+        assertEquals(codec.encodedSize(book), encoded.remaining());
+        RecipeCodec.BookView view = codec.view(encoded);
+        assertFalse(encoded.hasRemaining());
+        Recipe[] recipes = book.getRecipes();
+        assertAll("View",
+            () -> assertEquals(3, view.size()),
+            () -> assertTrue(view.isGrowable()),
+            () -> assertEquals("Mocha", view.getName(2)),
+            () -> assertSameRecipe(recipes[1], view.getRecipe(1)),
+            () -> assertThrows(IndexOutOfBoundsException.class, () -> view.getRecipe(3))
+        );
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Test books round trip through direct buffers and dictionaries")
+    void testBookRoundTrip() {
+        RecipeCodec dictionaryCodec = new RecipeCodec(List.of("Mocha", "Coffee"));
+        ByteBuffer direct = ByteBuffer.allocateDirect(dictionaryCodec.encodedSize(book) + 8);
+        direct.putInt(42);
+        dictionaryCodec.encode(book, direct);
+        direct.putInt(7);
+        direct.flip().getInt();
+        RecipeBook copy = dictionaryCodec.view(direct).toRecipeBook();
+        assertEquals(7, direct.getInt());
+        assertEquals(3, copy.size());
+        for (int i = 0; i < 3; i++) {
+            assertSameRecipe(book.getRecipes()[i], copy.getRecipes()[i]);
+        }
+        direct.position(4);
+        assertThrows(IllegalArgumentException.class, () -> codec.view(direct));
+        assertThrows(IllegalArgumentException.class, () -> new RecipeCodec(List.of("Coffee")).view(direct));
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Test encoding and decoding a large book")
+    void testThroughput() throws RecipeException {
+        RecipeBook large = new RecipeBook(true);
+        for (int i = 0; i < 100_000; i++) {
+            large.addRecipe(recipe("Recipe" + i, i, 3, 1, 300, 0));
+        }
+        ByteBuffer encoded = codec.encode(large);
+        RecipeCodec.BookView view = codec.view(encoded);
+        long sum = 0;
+        for (int i = 0; i < view.size(); i++) {
+            sum += view.getRecipe(i).getPrice();
+        }
+        assertEquals(100_000L * 99_999 / 2, sum);
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Test deleted slots keep their positions through a round trip")
+    void testDeletedSlotsRoundTrip() throws RecipeException {
+        RecipeBook fixed = new RecipeBook();
+        fixed.addRecipe(recipe("A", 10, 1, 0, 0, 0));
+        fixed.addRecipe(recipe("B", 20, 2, 0, 0, 0));
+        fixed.addRecipe(recipe("C", 30, 3, 0, 0, 0));
+        fixed.addRecipe(recipe("D", 40, 4, 0, 0, 0));
+        fixed.deleteRecipe(0);
+        fixed.deleteRecipe(1);
+        RecipeBook copy = codec.view(codec.encode(fixed)).toRecipeBook();
+        assertAll("Restored slots",
+            () -> assertEquals(4, copy.size()),
+            () -> assertFalse(copy.isGrowable()),
+            () -> assertEquals("", copy.getRecipes()[0].getName()),
+            () -> assertEquals("", copy.getRecipes()[1].getName()),
+            () -> assertEquals("C", copy.getRecipes()[2].getName()),
+            () -> assertEquals("D", copy.getRecipes()[3].getName()),
+            () -> assertEquals(3, copy.indexOf("D")),
+            () -> assertEquals(40, copy.getRecipe("D").getPrice()),
+            () -> assertFalse(copy.addRecipe(recipe("E", 50, 5, 0, 0, 0)))
+        );
+    }
+}
@@ -0,0 +1,106 @@
+package main.najah.test;
+
+import main.najah.code.Recipe;
+import main.najah.code.RecipeBook;
+import main.najah.code.RecipeCsvLoader;
+import main.najah.code.RecipeException;
+import main.najah.code.RecipeImportReport;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RecipeCsvLoader Tests")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class RecipeCsvLoaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @Order(1)
+    @DisplayName("Test valid rows are added and bad rows are reported")
+    void testLoadWithErrors() throws IOException {
+        Path file = dir.resolve("menu.csv");
+        Files.writeString(file, String.join("\r\n",
+            "name,price,coffee,milk,sugar,chocolate",
+            "Coffee,50,3,2,1,0",
+            "",
+            " Latte ,60,2,3,2,1",
+            "Mocha,abc,1,1,1,1",
+            "Tea,10,0,-1,0,0",
+            "Short,1,2",
+            "Coffee,55,3,2,1,0",
+            "Hot Chocolate,40,0,1,1,3"));
+        RecipeBook book = new RecipeBook(true);
+        RecipeImportReport report = new RecipeCsvLoader().load(file, book);
+
+        assertAll("Import report",
+            () -> assertEquals(7, report.getRowsRead()),
+            () -> assertEquals(3, report.getRecipesAdded()),
+            () -> assertEquals(1, report.getRecipesRejected()),
+            () -> assertEquals(3, report.getErrors().size()),
+            () -> assertEquals(5, report.getErrors().get(0).getLine()),
+            () -> assertEquals("Price must be a positive integer", report.getErrors().get(0).getMessage()),
+            () -> assertEquals("Units of milk must be a positive integer", report.getErrors().get(1).getMessage()),
+            () -> assertEquals("Expected 6 fields but found 3", report.getErrors().get(2).getMessage()),
+            () -> assertEquals(60, book.getRecipe("Latte").getPrice()),
+            () -> assertEquals(3, book.getRecipe("Hot Chocolate").getAmtChocolate())
+        );
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Test padded numbers are rejected as the setters reject them")
+    void testPaddedFields() throws IOException {
+        Path file = dir.resolve("padded.csv");
+        Files.writeString(file, "Coffee, 50,3,2,1,0\nLatte,60 ,2,3,2,1\nMocha,70,1,1,1,\t1\n");
+        RecipeBook book = new RecipeBook(true);
+        RecipeImportReport report = new RecipeCsvLoader(',', false).load(file, book);
+        assertThrows(RecipeException.class, () -> new Recipe().setPrice(" 50"));
+        assertAll("Padded fields",
+            () -> assertEquals(0, report.getRecipesAdded()),
+            () -> assertEquals(3, report.getErrors().size()),
+            () -> assertEquals("Price must be a positive integer", report.getErrors().get(0).getMessage()),
+            () -> assertEquals("Price must be a positive integer", report.getErrors().get(1).getMessage()),
+            () -> assertEquals("Units of chocolate must be a positive integer", report.getErrors().get(2).getMessage())
+        );
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Test TSV without header and without trailing newline")
+    void testLoadTsv() throws IOException {
+        Path file = dir.resolve("menu.tsv");
+        Files.writeString(file, "Coffee\t50\t3\t2\t1\t0\nLatte\t60\t2\t3\t2\t1");
+        RecipeBook book = new RecipeBook();
+        RecipeImportReport report = new RecipeCsvLoader('\t', false).load(file, book);
+        assertEquals(2, report.getRecipesAdded());
+        assertTrue(report.getErrors().isEmpty());
+        assertEquals(1, book.indexOf("Latte"));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Test a large file with scattered bad rows is imported")
+    void testLargeFile() throws IOException {
+        Path file = dir.resolve("large.csv");
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write("name,price,coffee,milk,sugar,chocolate\n");
+            for (int i = 0; i < 200_000; i++) {
+                out.write("Recipe" + i + ",50,3,2,1," + (i % 1000 == 0 ? "x" : "0") + "\n");
+            }
+        }
+        RecipeBook book = new RecipeBook(true);
+        RecipeImportReport report = new RecipeCsvLoader().load(file, book);
+        assertEquals(200_000, report.getRowsRead());
+        assertEquals(200, report.getErrors().size());
+        assertEquals(199_800, book.size());
+        assertEquals(199_799, book.indexOf("Recipe199999"));
+    }
+}
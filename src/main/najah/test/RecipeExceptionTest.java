@@ -1,6 +1,8 @@
 //Disable is in this file by the way 
 package main.najah.test;
 
+import main.najah.code.Recipe;
+import main.najah.code.RecipeErrorCode;
 import main.najah.code.RecipeException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -37,6 +39,55 @@ public class RecipeExceptionTest {
             assertEquals("Something went wrong", e.getMessage());
         }
     }
+    @Test
+    @DisplayName("Test RecipeException created from a message has no error code")
+    void testMessageExceptionHasNoCode() {
+        assertNull(new RecipeException("error").getErrorCode());
+    }
+
+    @Test
+    @DisplayName("Test validation errors are shared, stackless and carry their code")
+    void testValidationExceptionIsCached() {
+        Recipe recipe = new Recipe();
+        RecipeException first = assertThrows(RecipeException.class, () -> recipe.setAmtMilk("-1"));
+        RecipeException second = assertThrows(RecipeException.class, () -> recipe.setAmtMilk("x"));
+        assertAll("Cached exception",
+            () -> assertSame(first, second),
+            () -> assertEquals(RecipeErrorCode.MILK, first.getErrorCode()),
+            () -> assertEquals(RecipeErrorCode.MILK.getMessage(), first.getMessage()),
+            () -> assertEquals(0, first.getStackTrace().length)
+        );
+    }
+
+    @Test
+    @DisplayName("Test full stack traces can be turned on for debugging")
+    void testFullStackTraces() {
+        Recipe recipe = new Recipe();
+        RecipeException.setFullStackTraces(true);
+        try {
+            RecipeException first = assertThrows(RecipeException.class, () -> recipe.setPrice("-1"));
+            RecipeException second = assertThrows(RecipeException.class, () -> recipe.setPrice("-1"));
+            assertNotSame(first, second);
+            assertTrue(first.getStackTrace().length > 0);
+            assertEquals(RecipeErrorCode.PRICE, first.getErrorCode());
+        } finally {
+            RecipeException.setFullStackTraces(false);
+        }
+    }
+
+    @Test
+    @DisplayName("Test rejections are counted per error code")
+    void testRejectionCounts() {
+        Recipe recipe = new Recipe();
+        long sugar = RecipeErrorCode.SUGAR.getRejectionCount();
+        long chocolate = RecipeErrorCode.CHOCOLATE.getRejectionCount();
+        assertThrows(RecipeException.class, () -> recipe.setAmtSugar("-2"));
+        assertFalse(recipe.trySetAmtSugar("abc"));
+        assertTrue(recipe.trySetAmtChocolate("2"));
+        assertTrue(RecipeErrorCode.SUGAR.getRejectionCount() - sugar >= 2);
+        assertEquals(chocolate, RecipeErrorCode.CHOCOLATE.getRejectionCount());
+    }
+
 //THIS IF THE DISABLE SECTION AS REQUIRED
     
 //    @Test
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import static org.junit.jupiter.api.Assertions.assertTimeout;
 
@@ -181,4 +182,50 @@ class RecipeTest {
             () -> assertEquals(4, recipe.getAmtChocolate())
         );
     }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "7", "+7", "-0", "007", "2147483647", "2147483648", "-1", "-2147483648",
+        "", "-", "+", "1a", " 1", "1.0", "\u0663", "99999999999999999999"})
+    @DisplayName("Parameterized Test: fast parsing agrees with Integer.parseInt")
+    void testParseUnitsMatchesParseInt(String text) {
+        int expected;
+        try {
+            int value = Integer.parseInt(text);
+            expected = value >= 0 ? value : Recipe.INVALID_UNITS;
+        } catch (NumberFormatException e) {
+            expected = Recipe.INVALID_UNITS;
+        }
+        byte[] bytes = ("#" + text + "#").getBytes(StandardCharsets.UTF_8);
+        int expectedValue = expected;
+        assertAll("parseUnits(" + text + ")",
+            () -> assertEquals(expectedValue, Recipe.parseUnits(text)),
+            () -> assertEquals(expectedValue, Recipe.parseUnits("<" + text + ">", 1, text.length() + 1)),
+            () -> assertEquals(expectedValue, Recipe.parseUnits(bytes, 1, bytes.length - 2))
+        );
+    }
+
+    @Test
+    @DisplayName("Try-setters report bad input without throwing")
+    void testTrySetters() {
+        assertAll("Try-setters",
+            () -> assertTrue(recipe.trySetPrice("40")),
+            () -> assertFalse(recipe.trySetPrice("-4")),
+            () -> assertEquals(40, recipe.getPrice()),
+            () -> assertTrue(recipe.trySetAmtCoffee(new StringBuilder("3"))),
+            () -> assertFalse(recipe.trySetAmtMilk("milk")),
+            () -> assertFalse(recipe.trySetAmtSugar(null)),
+            () -> assertTrue(recipe.trySetAmtChocolate("0")),
+            () -> assertEquals(3, recipe.getAmtCoffee()),
+            () -> assertEquals(0, recipe.getAmtMilk())
+        );
+    }
+
+    @Test
+    @DisplayName("Set AmtCoffee - Invalid input keeps the exact message")
+    void testSetAmtCoffeeMessages() {
+        Exception overflow = assertThrows(RecipeException.class, () -> recipe.setAmtCoffee("2147483648"));
+        Exception empty = assertThrows(RecipeException.class, () -> recipe.setAmtSugar(""));
+        assertEquals("Units of coffee must be a positive integer", overflow.getMessage());
+        assertEquals("Units of sugar must be a positive integer", empty.getMessage());
+    }
 }
@@ -0,0 +1,25 @@
+package main.najah.test;
+
+import main.najah.code.Recipe;
+import main.najah.code.RecipeException;
+
+/**
+ * Builds recipes for tests through the public setters.
+ */
+final class TestRecipes {
+
+    private TestRecipes() {
+    }
+
+    static Recipe recipe(String name, int price, int coffee, int milk, int sugar, int chocolate)
+            throws RecipeException {
+        Recipe r = new Recipe();
+        r.setName(name);
+        r.setPrice(String.valueOf(price));
+        r.setAmtCoffee(String.valueOf(coffee));
+        r.setAmtMilk(String.valueOf(milk));
+        r.setAmtSugar(String.valueOf(sugar));
+        r.setAmtChocolate(String.valueOf(chocolate));
+        return r;
+    }
+}